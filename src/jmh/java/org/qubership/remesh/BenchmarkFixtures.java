@@ -0,0 +1,27 @@
+package org.qubership.remesh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+public final class BenchmarkFixtures {
+    public static final String SMALL = "route-configuration-small.yaml";
+    public static final String LARGE = "route-configuration-large.yaml";
+    public static final String PLAIN = "route-configuration-plain.yaml";
+    public static final String CHART_BUNDLE = "chart-bundle.yaml";
+
+    public static String load(String name) {
+        String resource = "fixtures/" + name;
+        try (InputStream is = BenchmarkFixtures.class.getClassLoader().getResourceAsStream(resource)) {
+            if (is == null) {
+                throw new IllegalStateException("Fixture not found: " + resource);
+            }
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BenchmarkFixtures() {}
+}
@@ -0,0 +1,91 @@
+package org.qubership.remesh;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.qubership.remesh.handler.MeshResourceRouter;
+import org.qubership.remesh.handler.Resource;
+import org.qubership.remesh.serialization.YamlPreprocessor;
+import org.qubership.remesh.util.ObjectMapperProvider;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing the resources of one output file: a String per resource written to the file writer, as before,
+ * against one SequenceWriter streaming into it. The writer encodes to a null stream, so only serialization
+ * and encoding are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceSequenceBenchmark {
+
+    @Param({BenchmarkFixtures.SMALL, BenchmarkFixtures.LARGE})
+    private String fixture;
+
+    @Param({"1", "20"})
+    private int copies;
+
+    private ObjectMapper mapper;
+    private ObjectWriter objectWriter;
+    private List<Resource> resources;
+
+    @Setup
+    public void setUp() {
+        mapper = ObjectMapperProvider.getMapper();
+        objectWriter = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        List<Resource> routed = new MeshResourceRouter().route(
+                new YamlPreprocessor(mapper).preprocessYaml(BenchmarkFixtures.load(fixture)));
+        resources = new ArrayList<>();
+        for (int i = 0; i < copies; i++) {
+            resources.addAll(routed);
+        }
+    }
+
+    @Benchmark
+    public Writer stringPerResource() throws IOException {
+        Writer writer = fileWriter();
+        for (Resource resource : resources) {
+            writer.write(mapper.writeValueAsString(resource));
+        }
+        writer.flush();
+        return writer;
+    }
+
+    @Benchmark
+    public Writer sequenceWriter() throws IOException {
+        Writer writer = fileWriter();
+        try (ResourceSequence sequence = new ResourceSequence(objectWriter, writer)) {
+            for (Resource resource : resources) {
+                sequence.write(resource);
+            }
+        }
+        return writer;
+    }
+
+    private static Writer fileWriter() {
+        return new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8));
+    }
+}
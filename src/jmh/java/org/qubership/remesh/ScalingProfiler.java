@@ -0,0 +1,71 @@
+package org.qubership.remesh;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds peak RSS and, for benchmarks with a {@code files} parameter, time per file to every iteration; GC time comes
+ * from {@code -prof gc}. Peak RSS is read from {@code /proc/self/status} and reset before each iteration where the
+ * kernel allows it, so it is only reported on Linux. Run with {@code -prof org.qubership.remesh.ScalingProfiler}.
+ */
+public class ScalingProfiler implements InternalProfiler {
+    private static final Path STATUS = Path.of("/proc/self/status");
+    private static final Path CLEAR_REFS = Path.of("/proc/self/clear_refs");
+
+    @Override
+    public String getDescription() {
+        return "Peak RSS and time per file of each iteration";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        try {
+            // "5" resets VmHWM to the current RSS
+            Files.writeString(CLEAR_REFS, "5");
+        } catch (IOException | UnsupportedOperationException ignored) {
+            // the peak then covers the fork so far, which is still an upper bound
+        }
+    }
+
+    @Override
+    public List<Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                       IterationResult result) {
+        List<Result> results = new ArrayList<>();
+        long peakKb = peakRssKb();
+        if (peakKb > 0) {
+            results.add(new ScalarResult("rss.peak", peakKb / 1024.0, "MB", AggregationPolicy.MAX));
+        }
+        String files = benchmarkParams.getParam("files");
+        if (files != null) {
+            TimeUnit unit = benchmarkParams.getTimeUnit();
+            double micros = result.getPrimaryResult().getScore() * unit.toNanos(1) / 1000.0;
+            results.add(new ScalarResult("time.perFile", micros / Long.parseLong(files), "us/file", AggregationPolicy.AVG));
+        }
+        return results;
+    }
+
+    private static long peakRssKb() {
+        try {
+            for (String line : Files.readAllLines(STATUS)) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.substring("VmHWM:".length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // not Linux
+        }
+        return 0;
+    }
+}
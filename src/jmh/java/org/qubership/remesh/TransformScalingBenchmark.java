@@ -0,0 +1,108 @@
+package org.qubership.remesh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.qubership.remesh.corpus.CorpusGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end {@link TransformerService#transform} over a generated chart tree of increasing size and thread count.
+ * Each point runs in its own fork, so the peak RSS from {@link ScalingProfiler} and the GC time from {@code -prof gc}
+ * belong to that point. Scaling is linear when {@code time.perFile} stays flat as {@code files} grows.
+ * Left out of the default JMH run; select it by name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class TransformScalingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int files;
+
+    @Param({"1", "4"})
+    private int threads;
+
+    @Param({"2"})
+    private int fragmentsPerFile;
+
+    @Param({"4"})
+    private int rulesPerRoute;
+
+    @Param({"1"})
+    private int headerMatchersPerRule;
+
+    @Param({"0.3"})
+    private double templateDensity;
+
+    @Param({"false"})
+    private boolean validate;
+
+    private TransformerService transformerService;
+    private Path corpus;
+    private Path out;
+
+    @Setup(Level.Trial)
+    public void generateCorpus() throws IOException {
+        CorpusGenerator generator = new CorpusGenerator();
+        generator.setFiles(files);
+        generator.setFragmentsPerFile(fragmentsPerFile);
+        generator.setRulesPerRoute(rulesPerRoute);
+        generator.setHeaderMatchersPerRule(headerMatchersPerRule);
+        generator.setTemplateDensity(templateDensity);
+        corpus = Files.createTempDirectory("remesh-corpus");
+        generator.generate(corpus);
+        transformerService = new TransformerService();
+    }
+
+    @Setup(Level.Iteration)
+    public void createOutput() throws IOException {
+        out = Files.createTempDirectory("remesh-scaling-out");
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteOutput() throws IOException {
+        delete(out);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCorpus() throws IOException {
+        delete(corpus);
+    }
+
+    @Benchmark
+    public TransformResult transform() throws IOException {
+        TransformOptions options = new TransformOptions();
+        options.setOutDir(out);
+        options.setThreads(threads);
+        options.setValidate(validate);
+        return transformerService.transform(corpus, options);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.qubership.remesh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Whole-file conversion: read, split, preprocess, route, handle, optionally validate, serialize and write.
+ * The input is restored before every invocation since processFile replaces it with the output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformerServiceBenchmark {
+
+    @Param({BenchmarkFixtures.CHART_BUNDLE, BenchmarkFixtures.LARGE})
+    private String fixture;
+
+    @Param({"false", "true"})
+    private boolean validate;
+
+    private TransformerService transformerService;
+    private String content;
+    private Path dir;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws IOException {
+        transformerService = new TransformerService();
+        content = BenchmarkFixtures.load(fixture);
+        dir = Files.createTempDirectory("remesh-bench");
+        file = dir.resolve("values.yaml");
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreInput() throws IOException {
+        Files.deleteIfExists(file.resolveSibling("values.yaml_old"));
+        Files.writeString(file, content);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void processFile() {
+        transformerService.processFile(file, validate);
+    }
+}
@@ -0,0 +1,125 @@
+package org.qubership.remesh.handler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.qubership.remesh.BenchmarkFixtures;
+import org.qubership.remesh.TransformerService;
+import org.qubership.remesh.serialization.YamlPreprocessor;
+import org.qubership.remesh.util.ObjectMapperProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch cost of the router on its own (no-op handler and non-Mesh input) and with the registered handlers,
+ * plus raw text through the tree path and through the token-stream path, for one fragment and for every fragment
+ * of a chart bundle that mixes Mesh and plain Kubernetes documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeshResourceRouterBenchmark {
+    private MeshResourceRouter registryRouter;
+    private MeshResourceRouter noopRouter;
+    private JsonNode meshNode;
+    private JsonNode nonMeshNode;
+    private YamlPreprocessor preprocessor;
+    private String meshText;
+    private String nonMeshText;
+    private String[] bundleFragments;
+
+    @Setup
+    public void setUp() throws Exception {
+        preprocessor = new YamlPreprocessor(ObjectMapperProvider.getMapper());
+        meshText = BenchmarkFixtures.load(BenchmarkFixtures.SMALL);
+        nonMeshText = """
+                apiVersion: v1
+                kind: Service
+                metadata:
+                  name: order-service
+                """;
+        bundleFragments = BenchmarkFixtures.load(BenchmarkFixtures.CHART_BUNDLE).split(TransformerService.FRAGMENT_DELIMITER);
+        meshNode = preprocessor.readAsJsonNode(meshText);
+        nonMeshNode = ObjectMapperProvider.getMapper().readTree(nonMeshText);
+
+        registryRouter = new MeshResourceRouter();
+        List<Resource> none = List.of();
+        noopRouter = new MeshResourceRouter(kind -> new CrHandler() {
+            @Override
+            public String getKind() {
+                return kind;
+            }
+
+            @Override
+            public List<Resource> handle(JsonNode node) {
+                return none;
+            }
+        });
+    }
+
+    @Benchmark
+    public List<Resource> dispatchOnly() {
+        return noopRouter.route(meshNode);
+    }
+
+    @Benchmark
+    public List<Resource> skipNonMesh() {
+        return registryRouter.route(nonMeshNode);
+    }
+
+    @Benchmark
+    public List<Resource> routeAndHandle() {
+        return registryRouter.route(meshNode);
+    }
+
+    @Benchmark
+    public List<Resource> treeFragment() {
+        return registryRouter.route(preprocessor.readAsJsonNode(meshText));
+    }
+
+    @Benchmark
+    public List<Resource> streamFragment() {
+        return registryRouter.route(preprocessor.preprocessYaml(meshText));
+    }
+
+    @Benchmark
+    public List<Resource> treeSkipNonMesh() {
+        return registryRouter.route(preprocessor.readAsJsonNode(nonMeshText));
+    }
+
+    @Benchmark
+    public List<Resource> streamSkipNonMesh() {
+        return registryRouter.route(preprocessor.preprocessYaml(nonMeshText));
+    }
+
+    @Benchmark
+    public List<Resource> treeBundle() {
+        List<Resource> resources = new ArrayList<>();
+        for (String fragment : bundleFragments) {
+            resources.addAll(registryRouter.route(preprocessor.readAsJsonNode(fragment)));
+        }
+        return resources;
+    }
+
+    @Benchmark
+    public List<Resource> streamBundle() {
+        List<Resource> resources = new ArrayList<>();
+        for (String fragment : bundleFragments) {
+            resources.addAll(registryRouter.route(preprocessor.preprocessYaml(fragment)));
+        }
+        return resources;
+    }
+}
@@ -0,0 +1,46 @@
+package org.qubership.remesh.handler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.qubership.remesh.BenchmarkFixtures;
+import org.qubership.remesh.serialization.YamlPreprocessor;
+import org.qubership.remesh.util.ObjectMapperProvider;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteConfigurationHandlerBenchmark {
+
+    @Param({BenchmarkFixtures.SMALL, BenchmarkFixtures.LARGE})
+    private String fixture;
+
+    private RouteConfigurationHandler handler;
+    private JsonNode node;
+
+    @Setup
+    public void setUp() {
+        handler = new RouteConfigurationHandler();
+        node = new YamlPreprocessor(ObjectMapperProvider.getMapper()).readAsJsonNode(BenchmarkFixtures.load(fixture));
+    }
+
+    @Benchmark
+    public List<Resource> handle() {
+        return handler.handle(node);
+    }
+}
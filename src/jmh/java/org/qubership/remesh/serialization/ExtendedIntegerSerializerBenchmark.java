@@ -0,0 +1,61 @@
+package org.qubership.remesh.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One serialize call per value kind; the generator writes to a null sink so only classification and
+ * token output are measured. {@code classify} is the integer check on its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtendedIntegerSerializerBenchmark {
+
+    @Param({"8080", "{{ .Values.PORT }}", "http-web", "99999999999"})
+    private String value;
+
+    private ExtendedIntegerSerializer serializer;
+    private JsonGenerator generator;
+
+    @Setup
+    public void setUp() throws IOException {
+        serializer = new ExtendedIntegerSerializer();
+        generator = new ObjectMapper().getFactory().createGenerator(Writer.nullWriter());
+        generator.writeStartArray();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        generator.close();
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        serializer.serialize(value, generator, null);
+    }
+
+    @Benchmark
+    public boolean classify() {
+        return serializer.isInteger(value);
+    }
+}
@@ -0,0 +1,133 @@
+package org.qubership.remesh.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.qubership.remesh.util.ObjectMapperProvider;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Helm template handling on large templated fragments: the single-pass tokenizer against the
+ * two regex passes it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class YamlPreprocessorBenchmark {
+    private static final Pattern LEGACY_STANDALONE = Pattern.compile("(?m)^(\\s*)(\\{\\{[^\\n]*}})\\s*$");
+    private static final Pattern LEGACY_INLINE = Pattern.compile(
+            "(?m)^([ \\t]*[^:#\\n]+:)[ \\t]*" +
+                    "(?![ \\t]*['\"])" +
+                    "([^\\n]*\\{\\{[^\\n]+}}[^\\n]*)$"
+    );
+
+    @Param({"10", "1000"})
+    private int rules;
+
+    @Param({"1", "20"})
+    private int templatesPerLine;
+
+    private String document;
+    private ObjectMapper mapper;
+    private YamlPreprocessor preprocessor;
+
+    @Setup
+    public void setUp() {
+        document = helmHeavyRouteConfiguration(rules, templatesPerLine);
+        mapper = ObjectMapperProvider.getMapper();
+        preprocessor = new YamlPreprocessor(mapper);
+    }
+
+    @Benchmark
+    public TemplatedYaml tokenizer() {
+        return preprocessor.preprocessYaml(document);
+    }
+
+    @Benchmark
+    public String legacyRegex() {
+        return legacyQuoteInlineTemplates(LEGACY_STANDALONE.matcher(document).replaceAll("$1# $2"));
+    }
+
+    @Benchmark
+    public JsonNode tokenizerAndParse() {
+        return preprocessor.readAsJsonNode(document);
+    }
+
+    @Benchmark
+    public JsonNode legacyRegexAndParse() throws Exception {
+        return mapper.readTree(legacyRegex());
+    }
+
+    private static String legacyQuoteInlineTemplates(String yaml) {
+        Matcher m = LEGACY_INLINE.matcher(yaml);
+        StringBuilder sb = new StringBuilder();
+        while (m.find()) {
+            String valuePart = m.group(2).trim();
+            if (valuePart.indexOf('[') >= 0 || valuePart.indexOf(']') >= 0) {
+                m.appendReplacement(sb, Matcher.quoteReplacement(m.group(0)));
+                continue;
+            }
+            String quotedValue = "'" + valuePart.replace("'", "''") + "'";
+            m.appendReplacement(sb, Matcher.quoteReplacement(m.group(1) + " " + quotedValue));
+        }
+        m.appendTail(sb);
+        return sb.toString();
+    }
+
+    private static String helmHeavyRouteConfiguration(int rules, int templatesPerLine) {
+        StringBuilder sb = new StringBuilder("""
+                apiVersion: core.netcracker.com/v1
+                kind: Mesh
+                subKind: RouteConfiguration
+                metadata:
+                  name: {{ .Values.SERVICE_NAME }}-mesh-routes
+                  namespace: "{{ .Values.NAMESPACE }}"
+                  labels:
+                    {{ include "labels.common" . | nindent 4 | trim }}
+                    deployer.cleanup/allow: "true"
+                spec:
+                  gateways: ["{{ .Values.GATEWAY }}"]
+                  virtualServices:
+                    - name: "{{ .Values.SERVICE_NAME }}"
+                      hosts: ["{{ .Values.SERVICE_NAME }}"]
+                      routeConfiguration:
+                        version: "{{ .Values.DEPLOYMENT_VERSION }}"
+                        routes:
+                          - destination:
+                              cluster: "{{ .Values.SERVICE_NAME }}"
+                              endpoint: http://{{ .Values.DEPLOYMENT_RESOURCE_NAME }}:8080
+                            rules:
+                """);
+        String longValue = "{{ .Values.PREFIX }}-x".repeat(templatesPerLine);
+        for (int i = 0; i < rules; i++) {
+            sb.append("                  {{- if .Values.ROUTE_").append(i).append("_ENABLED }}\n")
+                    .append("                  - match:\n")
+                    .append("                      prefix: /api/v1/").append(i).append("/").append(longValue).append('\n')
+                    .append("                      headerMatchers:\n")
+                    .append("                        - name: X-Tenant\n")
+                    .append("                          exactMatch: {{ .Values.TENANT }}\n")
+                    .append("                    prefixRewrite: /{{ .Values.CONTEXT }}/").append(i).append('\n')
+                    .append("                    addHeaders:\n")
+                    .append("                      - name: X-Version\n")
+                    .append("                        value: \"{{ .Values.DEPLOYMENT_VERSION }}\"\n")
+                    .append("                  {{- end }}\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package org.qubership.remesh.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.qubership.remesh.BenchmarkFixtures;
+import org.qubership.remesh.handler.Resource;
+import org.qubership.remesh.handler.RouteConfigurationHandler;
+import org.qubership.remesh.serialization.YamlPreprocessor;
+import org.qubership.remesh.util.ObjectMapperProvider;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of HTTPRoutes converted from a template-free fixture: {@code validateResources} takes the generated
+ * typed validator, {@code schemaInterpreter} the previous valueToTree + networknt path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceValidatorBenchmark {
+    private ResourceValidator validator;
+    private List<Resource> resources;
+
+    @Setup
+    public void setUp() {
+        validator = new ResourceValidator();
+        resources = new RouteConfigurationHandler().handle(
+                new YamlPreprocessor(ObjectMapperProvider.getMapper()).readAsJsonNode(BenchmarkFixtures.load(BenchmarkFixtures.PLAIN)));
+        resources.forEach(validator::validateResource);
+    }
+
+    @Benchmark
+    public int validateResources() {
+        resources.forEach(validator::validateResource);
+        return resources.size();
+    }
+
+    @Benchmark
+    public int schemaInterpreter() {
+        int errors = 0;
+        for (Resource resource : resources) {
+            errors += JsonSchemaValidator.errors(ObjectMapperProvider.getMapper().valueToTree(resource), validator.schemaFileName(resource)).size();
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,11 @@
+package org.qubership.remesh;
+
+import org.qubership.remesh.validation.ValidationReport;
+
+import java.util.List;
+
+/**
+ * Generated documents and validation issues of a {@link TransformerService#convert} call.
+ */
+public record ConversionResult(String output, int fragments, int resources, List<ValidationReport.Issue> issues) {
+}
@@ -0,0 +1,27 @@
+package org.qubership.remesh;
+
+import lombok.Data;
+import org.qubership.remesh.handler.Resource;
+import org.qubership.remesh.jfr.FileConversionEvent;
+import org.qubership.remesh.serialization.TemplatedYaml;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * One input file travelling through the staged pipeline; each stage fills in the next field.
+ */
+@Data
+class FileJob {
+    private final Path file;
+    private final FileReport report;
+    private List<String> fragments = List.of();
+    private List<TemplatedYaml> documents = List.of();
+    private List<List<Resource>> resources = List.of();
+    private long bytes;
+    // time spent on this file and each of its fragments across all stages, when stats are collected
+    private long busyNanos;
+    private long[] fragmentNanos = new long[0];
+    // begun by the read stage and committed by the write stage, so it spans the file's time in the pipeline
+    private final FileConversionEvent event = new FileConversionEvent();
+}
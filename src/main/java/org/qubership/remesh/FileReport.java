@@ -0,0 +1,103 @@
+package org.qubership.remesh;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-file log lines and counters. In parallel runs the lines are buffered and flushed
+ * in path order so the output does not depend on worker scheduling. Per-fragment detail
+ * lines are only kept when DEBUG is enabled.
+ */
+class FileReport {
+    private final Path file;
+    private final Logger log;
+    private final boolean buffered;
+    private final List<Entry> entries = new ArrayList<>();
+
+    private int fragments;
+    private int resources;
+    private boolean failed;
+
+    private FileReport(Path file, Logger log, boolean buffered) {
+        this.file = file;
+        this.log = log;
+        this.buffered = buffered;
+    }
+
+    static FileReport direct(Path file, Logger log) {
+        return new FileReport(file, log, false);
+    }
+
+    static FileReport buffered(Path file, Logger log) {
+        return new FileReport(file, log, true);
+    }
+
+    void detail(String format, Object... args) {
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        if (buffered) {
+            entries.add(new Entry(Level.DEBUG, format, args));
+        } else {
+            log.debug(format, args);
+        }
+    }
+
+    void info(String format, Object... args) {
+        if (buffered) {
+            entries.add(new Entry(Level.INFO, format, args));
+        } else {
+            log.info(format, args);
+        }
+    }
+
+    void error(String format, Object... args) {
+        if (buffered) {
+            entries.add(new Entry(Level.ERROR, format, args));
+        } else {
+            log.error(format, args);
+        }
+    }
+
+    void flush() {
+        for (Entry entry : entries) {
+            log.atLevel(entry.level()).log(entry.format(), entry.args());
+        }
+        entries.clear();
+    }
+
+    void fragmentProcessed() {
+        fragments++;
+    }
+
+    void resourceWritten() {
+        resources++;
+    }
+
+    void markFailed() {
+        failed = true;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int getFragments() {
+        return fragments;
+    }
+
+    int getResources() {
+        return resources;
+    }
+
+    boolean isFailed() {
+        return failed;
+    }
+
+    private record Entry(Level level, String format, Object[] args) {
+    }
+}
@@ -0,0 +1,36 @@
+package org.qubership.remesh;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects reports completed in any order and flushes them as soon as all preceding files are done.
+ */
+class OrderedReports {
+    private final List<Path> order;
+    private final Map<Path, FileReport> pending = new HashMap<>();
+    private final List<FileReport> flushed;
+    private int next;
+
+    OrderedReports(List<Path> order) {
+        this.order = order;
+        this.flushed = new ArrayList<>(order.size());
+    }
+
+    synchronized void complete(FileReport report) {
+        pending.put(report.getFile(), report);
+        while (next < order.size() && pending.containsKey(order.get(next))) {
+            FileReport ready = pending.remove(order.get(next));
+            ready.flush();
+            flushed.add(ready);
+            next++;
+        }
+    }
+
+    synchronized List<FileReport> reports() {
+        return List.copyOf(flushed);
+    }
+}
@@ -0,0 +1,45 @@
+package org.qubership.remesh;
+
+import lombok.extern.slf4j.Slf4j;
+import org.qubership.remesh.handler.ConversionException;
+import picocli.CommandLine;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.Callable;
+
+@Slf4j
+@CommandLine.Command(name = "post-render", description = "Converts a rendered manifest stream from stdin to stdout, e.g. as a helm --post-renderer")
+public class PostRenderCli implements Callable<Integer> {
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"-v", "--validate"}, description = "Run validation", defaultValue = "false")
+    private boolean validationEnabled;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--fail-on-invalid"}, description = "Exit with code 1 if any generated resource fails validation (implies --validate)", defaultValue = "false")
+    private boolean failOnInvalid;
+
+    @Override
+    public Integer call() throws Exception {
+        // stdout carries only the converted manifests; anything else printed goes to stderr,
+        // which the console appender follows.
+        OutputStream stdout = new BufferedOutputStream(System.out);
+        System.setOut(new PrintStream(System.err, true));
+
+        TransformResult result;
+        try {
+            result = new TransformerService().convertStream(System.in, stdout, validationEnabled || failOnInvalid);
+        } catch (ConversionException e) {
+            log.error("Conversion failed: {}", e.getMessage());
+            return 1;
+        }
+
+        if (failOnInvalid && result.invalidResources() > 0) {
+            log.error("{} generated resources failed validation", result.invalidResources());
+            return 1;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,45 @@
+package org.qubership.remesh;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.qubership.remesh.handler.Resource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Serializes the resources of one output file straight into its writer through a single {@link SequenceWriter},
+ * opened on the first resource since an empty YAML sequence cannot be closed.
+ */
+class ResourceSequence implements Closeable {
+    private final ObjectWriter objectWriter;
+    private final Writer writer;
+    private SequenceWriter sequence;
+
+    ResourceSequence(ObjectWriter objectWriter, Writer writer) {
+        this.objectWriter = objectWriter;
+        this.writer = writer;
+    }
+
+    void write(Resource resource) throws IOException {
+        if (sequence == null) {
+            sequence = objectWriter.writeValues(writer);
+        }
+        sequence.write(resource);
+    }
+
+    // The emitter holds back the last line break until the next event, so raw text may only follow once the
+    // sequence is closed; the next write opens a new one.
+    void end() throws IOException {
+        if (sequence != null) {
+            sequence.close();
+            sequence = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        end();
+    }
+}
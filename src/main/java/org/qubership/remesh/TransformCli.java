@@ -1,6 +1,12 @@
 package org.qubership.remesh;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.qubership.remesh.incremental.IncrementalManifest;
+import org.qubership.remesh.jfr.RunRecording;
+import org.qubership.remesh.server.ServeCli;
+import org.qubership.remesh.util.Re2Regex;
 import picocli.CommandLine;
 
 import java.nio.file.Files;
@@ -8,7 +14,7 @@ import java.nio.file.Path;
 import java.util.concurrent.Callable;
 
 @Slf4j
-@CommandLine.Command(name = "transform", description = "Performs automatic migration steps")
+@CommandLine.Command(name = "transform", description = "Performs automatic migration steps", subcommands = {ServeCli.class, PostRenderCli.class})
 public class TransformCli implements Callable<Integer> {
 
     @SuppressWarnings("unused")
@@ -19,16 +25,153 @@ public class TransformCli implements Callable<Integer> {
     @CommandLine.Option(names = {"-v", "--validate"}, description = "Run validation", defaultValue = "false")
     private boolean validationEnabled;
 
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"-t", "--threads"}, description = "Number of worker threads", defaultValue = "1")
+    private int threads;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--pipeline"}, description = "Run read/parse/route/write as separate stages; validation runs on its own pool", defaultValue = "false")
+    private boolean pipeline;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--queue-capacity"}, description = "Capacity of each pipeline stage queue", defaultValue = "64")
+    private int queueCapacity;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"-i", "--incremental"}, description = "Skip files unchanged since the last run (tracked in " + IncrementalManifest.FILE_NAME + ")", defaultValue = "false")
+    private boolean incremental;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"-o", "--out"}, description = "Write output to a mirrored tree under this dir instead of converting in place")
+    private Path outDir;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--fsync"}, description = "With --out, force every output file and its directory to disk, so a crash leaves either the previous or the new output", defaultValue = "false")
+    private boolean fsync;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--passthrough"}, description = "Memory-map inputs, convert only Mesh documents and copy all others unchanged", defaultValue = "false")
+    private boolean passthrough;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"-w", "--watch"}, description = "After the first run, keep reconverting YAML files as they are created or modified (requires --out)", defaultValue = "false")
+    private boolean watch;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--debounce"}, description = "Milliseconds without file events before a watch batch is converted", defaultValue = "50")
+    private int debounceMillis;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--stats"}, description = "Write per-stage timings, throughput and the slowest files and fragments as JSON to this file")
+    private Path statsFile;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--stats-openmetrics"}, description = "Write the same stats as an OpenMetrics textfile")
+    private Path openMetricsFile;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--stats-top"}, description = "Number of slowest files and fragments to report", defaultValue = "10")
+    private int statsTop;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--jfr"}, description = "Record the run with JDK Flight Recorder, including file, fragment, handler, schema and validation events, to this file")
+    private Path jfrFile;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--fail-on-invalid"}, description = "Exit with code 1 if any generated resource fails validation (implies --validate)", defaultValue = "false")
+    private boolean failOnInvalid;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--regex-budget"}, description = "Warn about header regexes whose estimated RE2 program size exceeds this", defaultValue = "" + Re2Regex.DEFAULT_PROGRAM_BUDGET)
+    private int regexBudget;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--verbose"}, description = "Log every unknown property and warning as it occurs, and per-fragment progress, instead of one summary at the end")
+    private boolean verbose;
+
     @Override
     public Integer call() throws Exception {
+        if (verbose) {
+            Configurator.setLevel("org.qubership.remesh", Level.DEBUG);
+        }
         Path dir = directory != null ? directory : Path.of(".");
         if (!Files.isDirectory(dir)) {
             log.error("Not a directory: {}", dir.toAbsolutePath());
             return 1;
         }
 
-        new TransformerService().transform(dir, validationEnabled);
+        if (threads < 1) {
+            log.error("Number of threads must be positive: {}", threads);
+            return 1;
+        }
+        if (queueCapacity < 1) {
+            log.error("Queue capacity must be positive: {}", queueCapacity);
+            return 1;
+        }
+
+        if (outDir != null && outDir.toAbsolutePath().normalize().equals(dir.toAbsolutePath().normalize())) {
+            log.error("Output dir must differ from the input dir: {}", outDir.toAbsolutePath());
+            return 1;
+        }
 
-        return 0;
+        if (passthrough && pipeline) {
+            log.error("--passthrough cannot be combined with --pipeline");
+            return 1;
+        }
+
+        if (watch && outDir == null) {
+            log.error("--watch requires --out: converting in place would retrigger on its own output");
+            return 1;
+        }
+        if (statsTop < 0) {
+            log.error("--stats-top must not be negative: {}", statsTop);
+            return 1;
+        }
+        if (debounceMillis < 0) {
+            log.error("Debounce must not be negative: {}", debounceMillis);
+            return 1;
+        }
+        if (regexBudget < 1) {
+            log.error("Regex budget must be positive: {}", regexBudget);
+            return 1;
+        }
+
+        TransformOptions options = new TransformOptions();
+        options.setValidate(validationEnabled || failOnInvalid);
+        options.setThreads(threads);
+        options.setPipeline(pipeline);
+        options.setQueueCapacity(queueCapacity);
+        options.setIncremental(incremental);
+        options.setOutDir(outDir);
+        options.setFsync(fsync);
+        options.setPassthrough(passthrough);
+        options.setDebounceMillis(debounceMillis);
+        options.setStatsFile(statsFile);
+        options.setOpenMetricsFile(openMetricsFile);
+        options.setStatsTop(statsTop);
+        options.setRegexProgramBudget(regexBudget);
+
+        RunRecording recording = jfrFile != null ? RunRecording.start(jfrFile) : null;
+        try {
+            if (watch) {
+                new TransformerService().watch(dir, options);
+                return 0;
+            }
+
+            TransformResult result = new TransformerService().transform(dir, options);
+            if (result.failedFiles() > 0) {
+                log.error("{} files failed to convert", result.failedFiles());
+                return 1;
+            }
+            if (failOnInvalid && result.invalidResources() > 0) {
+                log.error("{} generated resources failed validation", result.invalidResources());
+                return 1;
+            }
+            return 0;
+        } finally {
+            if (recording != null) {
+                recording.close();
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package org.qubership.remesh;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.qubership.remesh.util.Re2Regex;
+
+import java.nio.file.Path;
+
+@Data
+@NoArgsConstructor
+public class TransformOptions {
+    private boolean validate;
+    private int threads = 1;
+    private boolean pipeline;
+    private int queueCapacity = 64;
+    private boolean incremental;
+    private Path outDir;
+    private boolean fsync;
+    private boolean passthrough;
+    private int debounceMillis = 50;
+    private Path statsFile;
+    private Path openMetricsFile;
+    private int statsTop = 10;
+    private int regexProgramBudget = Re2Regex.DEFAULT_PROGRAM_BUDGET;
+
+    public boolean isStats() {
+        return statsFile != null || openMetricsFile != null;
+    }
+}
@@ -0,0 +1,18 @@
+package org.qubership.remesh;
+
+import org.qubership.remesh.validation.ValidationReport;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Totals of a {@link TransformerService#transform} run, with the validation issues behind {@link #invalidResources()}
+ * and the input files whose output was written.
+ */
+public record TransformResult(int files, int failedFiles, int fragments, int resources, List<ValidationReport.Issue> issues,
+                              List<Path> convertedFiles) {
+
+    public int invalidResources() {
+        return issues.size();
+    }
+}
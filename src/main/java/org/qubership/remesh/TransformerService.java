@@ -1,29 +1,75 @@
 package org.qubership.remesh;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.extern.slf4j.Slf4j;
-import org.qubership.remesh.handler.Resource;
+import org.qubership.remesh.diagnostics.Diagnostics;
+import org.qubership.remesh.handler.ConversionContext;
+import org.qubership.remesh.handler.ConversionException;
+import org.qubership.remesh.handler.CrHandlerRegistry;
 import org.qubership.remesh.handler.MeshResourceRouter;
+import org.qubership.remesh.handler.Resource;
+import org.qubership.remesh.incremental.IncrementalManifest;
+import org.qubership.remesh.jfr.FileConversionEvent;
+import org.qubership.remesh.jfr.FragmentConversionEvent;
+import org.qubership.remesh.output.InPlaceOutput;
+import org.qubership.remesh.output.MirrorOutput;
+import org.qubership.remesh.output.OutputFile;
+import org.qubership.remesh.output.OutputTarget;
+import org.qubership.remesh.pipeline.StagedPipeline;
+import org.qubership.remesh.serialization.DocumentStreamReader;
+import org.qubership.remesh.serialization.FragmentIndex;
+import org.qubership.remesh.serialization.TemplatedYaml;
 import org.qubership.remesh.serialization.YamlPreprocessor;
+import org.qubership.remesh.stats.RunStats;
+import org.qubership.remesh.stats.StatsReport;
 import org.qubership.remesh.util.ObjectMapperProvider;
+import org.qubership.remesh.util.ToolVersion;
+import org.qubership.remesh.validation.AsyncValidator;
 import org.qubership.remesh.validation.ResourceValidator;
+import org.qubership.remesh.validation.ValidationReport;
+import org.qubership.remesh.watch.DirectoryWatcher;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 @Slf4j
 public class TransformerService {
     public static final String FRAGMENT_DELIMITER = "(?m)^---\\s*$";
+    private static final int IO_WORKERS = 2;
+    private static final String DOCUMENT_START = "---\n";
     private final YamlPreprocessor yamlPreprocessor;
     private final MeshResourceRouter meshResourceRouter;
     private final ResourceValidator resourceValidator;
-    private final ObjectMapper mapper;
+    private final ObjectWriter resourceWriter;
+    private final ObjectWriter statsWriter = new ObjectMapper().writerWithDefaultPrettyPrinter();
 
     public TransformerService() {
         this(new YamlPreprocessor(ObjectMapperProvider.getMapper()),
@@ -40,73 +86,686 @@ public class TransformerService {
         this.yamlPreprocessor = yamlPreprocessor;
         this.meshResourceRouter = meshResourceRouter;
         this.resourceValidator = resourceValidator;
-        this.mapper = mapper;
+        this.resourceWriter = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
-    public void transform(Path dir, boolean validate) throws IOException {
+    public TransformResult transform(Path dir, boolean validate) throws IOException {
+        TransformOptions options = new TransformOptions();
+        options.setValidate(validate);
+        return transform(dir, options);
+    }
+
+    public TransformResult transform(Path dir, TransformOptions options) throws IOException {
         log.info("Start transforming in dir '{}'", dir);
+        RunStats stats = options.isStats() ? new RunStats(options.getStatsTop()) : RunStats.DISABLED;
+        OutputTarget output = outputTarget(dir, options);
+        Path outDir = options.getOutDir() != null ? options.getOutDir().toAbsolutePath().normalize() : null;
+        List<Path> files;
         try (Stream<Path> stream = Files.walk(dir)) {
-            stream.filter(Files::isRegularFile)
+            files = stream.filter(Files::isRegularFile)
                     .filter(this::isYaml)
-                    .forEach(file -> processFile(file, validate));
+                    .filter(file -> outDir == null || !file.toAbsolutePath().normalize().startsWith(outDir))
+                    .sorted()
+                    .toList();
+        }
+
+        IncrementalManifest manifest = null;
+        List<Path> changed = files;
+        if (options.isIncremental()) {
+            Path manifestDir = outDir != null ? outDir : dir;
+            manifest = IncrementalManifest.load(dir, manifestDir, converterVersion(options));
+            changed = changedFiles(files, manifest, output, options);
+            log.info("Incremental mode: {} of {} files changed since the last run", changed.size(), files.size());
+        }
+
+        AsyncValidator validator = options.isValidate() ? new AsyncValidator(resourceValidator, options.getThreads(), stats) : null;
+        ConversionContext context = new ConversionContext(new Diagnostics(), options.getRegexProgramBudget());
+        List<FileReport> reports = processFiles(changed, options, output, validator, stats, context);
+        output.finish();
+        ValidationReport validation = validator != null ? validator.finish() : ValidationReport.EMPTY;
+
+        if (manifest != null) {
+            updateManifest(manifest, files, reports);
+        }
+
+        validation.log();
+        if (stats.isEnabled()) {
+            writeStats(stats.report(), options);
+        }
+        return logSummary(reports, validation, context.diagnostics());
+    }
+
+    /**
+     * Transforms {@code dir} once and then reconverts created or modified YAML files as they change, until the
+     * thread is interrupted. Output must go to {@link TransformOptions#getOutDir()}: converting in place would
+     * trigger on its own writes.
+     */
+    public void watch(Path dir, TransformOptions options) throws IOException, InterruptedException {
+        if (options.getOutDir() == null) {
+            throw new IllegalArgumentException("Watch mode requires an output dir");
+        }
+        OutputTarget output = outputTarget(dir, options);
+        // Registered before the initial run so that edits made during it are picked up afterwards.
+        try (DirectoryWatcher watcher = new DirectoryWatcher(dir, options.getOutDir(),
+                Duration.ofMillis(options.getDebounceMillis()), this::isYaml)) {
+            transform(dir, options);
+            log.info("Watching '{}' for changes", dir);
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Path> changed = watcher.awaitChanges();
+                long start = System.nanoTime();
+                AsyncValidator validator = options.isValidate() ? new AsyncValidator(resourceValidator, options.getThreads()) : null;
+                ConversionContext context = new ConversionContext(new Diagnostics(), options.getRegexProgramBudget());
+                List<FileReport> reports = processFiles(changed, options, output, validator, RunStats.DISABLED, context);
+                output.finish();
+                ValidationReport validation = validator != null ? validator.finish() : ValidationReport.EMPTY;
+                validation.log();
+                logSummary(reports, validation, context.diagnostics());
+                log.info("Reconverted {} changed files in {} ms", changed.size(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        } catch (ClosedWatchServiceException e) {
+            throw new InterruptedException("Watch service closed");
+        }
+    }
+
+    private List<FileReport> processFiles(List<Path> files, TransformOptions options, OutputTarget output,
+                                          AsyncValidator validator, RunStats stats, ConversionContext context) {
+        if (options.isPipeline()) {
+            return processPipeline(files, options, output, validator, stats, context);
+        } else if (options.getThreads() > 1) {
+            return processParallel(files, options, output, validator, stats, context);
+        }
+        return processSequential(files, options, output, validator, stats, context);
+    }
+
+    private void writeStats(StatsReport report, TransformOptions options) {
+        try {
+            if (options.getStatsFile() != null) {
+                statsWriter.writeValue(options.getStatsFile().toFile(), report);
+                log.info("Stats written to '{}'", options.getStatsFile());
+            }
+            if (options.getOpenMetricsFile() != null) {
+                Files.writeString(options.getOpenMetricsFile(), report.toOpenMetrics(), StandardCharsets.UTF_8);
+                log.info("OpenMetrics written to '{}'", options.getOpenMetricsFile());
+            }
+        } catch (IOException e) {
+            log.error("Failed to write stats", e);
+        }
+    }
+
+    OutputTarget outputTarget(Path dir, TransformOptions options) {
+        if (options.getOutDir() == null) {
+            return new InPlaceOutput();
+        }
+        return new MirrorOutput(dir, options.getOutDir(), options.isFsync());
+    }
+
+    /**
+     * Version recorded in the incremental manifest. Options that change the produced output are part of it,
+     * so a run with different ones reconverts every file.
+     */
+    String converterVersion(TransformOptions options) {
+        return ToolVersion.get() + "+" + CrHandlerRegistry.fingerprint()
+                + ";passthrough=" + options.isPassthrough()
+                + ";regex-budget=" + options.getRegexProgramBudget();
+    }
+
+    private List<Path> changedFiles(List<Path> files, IncrementalManifest manifest, OutputTarget output, TransformOptions options) {
+        Predicate<Path> changed = file -> !manifest.isUpToDate(file) || !Files.exists(output.outputPath(file));
+        if (options.getThreads() <= 1) {
+            return files.stream().filter(changed).toList();
+        }
+        ForkJoinPool pool = new ForkJoinPool(options.getThreads());
+        try {
+            return pool.submit(() -> files.parallelStream().filter(changed).toList()).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Entries hold the hash of the input as it is on disk after the run: the converted file itself when
+    // converting in place, so it is skipped next time, or the untouched input when writing to --out.
+    private void updateManifest(IncrementalManifest manifest, List<Path> files, List<FileReport> reports) {
+        for (FileReport report : reports) {
+            if (!report.isFailed()) {
+                try {
+                    manifest.record(report.getFile());
+                } catch (UncheckedIOException e) {
+                    log.warn("Cannot record '{}' in manifest. Cause: {}", report.getFile(), e.getMessage());
+                }
+            }
+        }
+        manifest.retainOnly(files);
+        try {
+            manifest.save();
+        } catch (IOException e) {
+            log.error("Failed to save manifest in '{}'", IncrementalManifest.FILE_NAME, e);
+        }
+    }
+
+    List<FileReport> processSequential(List<Path> files, TransformOptions options, OutputTarget output,
+                                       AsyncValidator validator, RunStats stats, ConversionContext context) {
+        List<FileReport> reports = new ArrayList<>(files.size());
+        for (Path file : files) {
+            FileReport report = FileReport.direct(file, log);
+            convertFile(file, options, report, output, validator, stats, context);
+            reports.add(report);
+        }
+        return reports;
+    }
+
+    // Files are submitted largest-first so the long ones do not end up last on a single worker;
+    // reports are then drained in path order to keep the log deterministic.
+    List<FileReport> processParallel(List<Path> files, TransformOptions options, OutputTarget output,
+                                     AsyncValidator validator, RunStats stats, ConversionContext context) {
+        Map<Path, Long> sizes = new HashMap<>();
+        for (Path file : files) {
+            sizes.put(file, sizeOf(file));
+        }
+        List<Path> schedule = files.stream()
+                .sorted(Comparator.comparing(sizes::get).reversed())
+                .toList();
+
+        ForkJoinPool pool = new ForkJoinPool(options.getThreads());
+        try {
+            Map<Path, ForkJoinTask<FileReport>> tasks = new HashMap<>();
+            for (Path file : schedule) {
+                tasks.put(file, pool.submit(() -> {
+                    FileReport report = FileReport.buffered(file, log);
+                    convertFile(file, options, report, output, validator, stats, context);
+                    return report;
+                }));
+            }
+
+            List<FileReport> reports = new ArrayList<>(files.size());
+            for (Path file : files) {
+                FileReport report = tasks.get(file).join();
+                report.flush();
+                reports.add(report);
+            }
+            return reports;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Disk-bound stages get a couple of workers, CPU-bound ones get --threads. Validation is not a stage:
+    // routed resources go to the validator's own pool, so writing never waits for it.
+    List<FileReport> processPipeline(List<Path> files, TransformOptions options, OutputTarget output,
+                                     AsyncValidator validator, RunStats stats, ConversionContext context) {
+        OrderedReports reports = new OrderedReports(files);
+        int cpuWorkers = Math.max(1, options.getThreads());
+
+        StagedPipeline<FileJob> pipeline = new StagedPipeline<>(options.getQueueCapacity(), (job, e) -> {
+            job.getReport().error("Failed to process file '{}'", job.getFile(), e);
+            job.getReport().markFailed();
+        });
+        pipeline.addStage("read", IO_WORKERS, job -> readStage(job, stats))
+                .addStage("parse", cpuWorkers, job -> parseStage(job, stats))
+                .addStage("route", cpuWorkers, job -> routeStage(job, validator, stats, context));
+        // The last stage handles its own failures: the error handler would run after the report is completed,
+        // and a report that is never completed holds back every report after it.
+        pipeline.addStage("write", IO_WORKERS, job -> {
+            try {
+                writeStage(job, output, stats);
+            } catch (RuntimeException e) {
+                job.getReport().error("Failed to write file '{}'", job.getFile(), e);
+                job.getReport().markFailed();
+            } finally {
+                reports.complete(job.getReport());
+            }
+            return null;
+        });
+
+        ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "remesh-pipeline-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pipeline.start();
+        monitor.scheduleAtFixedRate(() -> log.debug("Pipeline queue depths: {}", pipeline.queueDepths()),
+                1, 1, TimeUnit.SECONDS);
+        try {
+            for (Path file : files) {
+                pipeline.submit(new FileJob(file, FileReport.buffered(file, log)));
+            }
+            pipeline.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for pipeline", e);
+        } finally {
+            monitor.shutdownNow();
+        }
+
+        for (StagedPipeline.StageStats stageStats : pipeline.stats()) {
+            log.info("Stage '{}': {} items on {} workers, busy {} ms, max queue depth {}/{}",
+                    stageStats.name(), stageStats.processed(), stageStats.workers(), stageStats.busyMillis(),
+                    stageStats.maxQueueDepth(), stageStats.queueCapacity());
+        }
+        return reports.reports();
+    }
+
+    FileJob readStage(FileJob job, RunStats stats) {
+        job.getReport().info("=== Processing file '{}' ===", job.getFile());
+        job.getEvent().begin();
+        try {
+            long start = stats.start();
+            String content = Files.readString(job.getFile(), StandardCharsets.UTF_8);
+            long nanos = stats.record(RunStats.READ, start);
+            start = stats.start();
+            job.setFragments(splitFragments(content));
+            nanos += stats.record(RunStats.SPLIT, start);
+            job.setBytes(stats.isEnabled() || job.getEvent().isEnabled() ? sizeOf(job.getFile()) : 0);
+            job.setBusyNanos(nanos);
+        } catch (IOException e) {
+            job.getReport().error("Failed to read file '{}'", job.getFile(), e);
+            job.getReport().markFailed();
+        }
+        return job;
+    }
+
+    FileJob parseStage(FileJob job, RunStats stats) {
+        if (!job.getReport().isFailed()) {
+            List<TemplatedYaml> documents = new ArrayList<>(job.getFragments().size());
+            long[] fragmentNanos = new long[job.getFragments().size()];
+            for (String fragment : job.getFragments()) {
+                long start = stats.start();
+                documents.add(yamlPreprocessor.preprocessYaml(fragment));
+                fragmentNanos[documents.size() - 1] = stats.record(RunStats.PREPROCESS, start);
+            }
+            job.setDocuments(documents);
+            job.setFragmentNanos(fragmentNanos);
+        }
+        return job;
+    }
+
+    FileJob routeStage(FileJob job, AsyncValidator validator, RunStats stats, ConversionContext context) {
+        if (!job.getReport().isFailed()) {
+            List<List<Resource>> resources = new ArrayList<>(job.getDocuments().size());
+            for (TemplatedYaml document : job.getDocuments()) {
+                long start = stats.start();
+                FragmentConversionEvent event = new FragmentConversionEvent();
+                event.begin();
+                List<Resource> routed = meshResourceRouter.route(document, stats, context.at(job.getFile(), resources.size() + 1));
+                commit(event, job.getFile(), resources.size() + 1, document.text().length(), routed);
+                if (stats.isEnabled()) {
+                    job.getFragmentNanos()[resources.size()] += System.nanoTime() - start;
+                }
+                resources.add(routed == null ? List.of() : routed);
+                submitForValidation(validator, job.getFile(), resources.size(), resources.getLast());
+            }
+            job.setResources(resources);
+        }
+        return job;
+    }
+
+    private static void commit(FragmentConversionEvent event, Path file, int fragment, long bytes, List<Resource> resources) {
+        if (event.shouldCommit()) {
+            event.path = file.toString();
+            event.fragment = fragment;
+            event.bytes = bytes;
+            event.resources = resources == null ? 0 : resources.size();
+            event.commit();
+        }
+    }
+
+    private void submitForValidation(AsyncValidator validator, Path file, int fragment, List<Resource> resources) {
+        if (validator == null) {
+            return;
+        }
+        for (int i = 0; i < resources.size(); i++) {
+            validator.submit(file, fragment, i + 1, resources.get(i));
+        }
+    }
+
+    // The output is opened only here, so a file that failed in an earlier stage is left untouched.
+    FileJob writeStage(FileJob job, OutputTarget output, RunStats stats) {
+        FileReport report = job.getReport();
+        if (report.isFailed()) {
+            commit(job.getEvent(), report, job.getBytes());
+            return job;
+        }
+
+        Path file = job.getFile();
+        try (OutputFile out = output.open(file)) {
+            long busyNanos = job.getBusyNanos();
+            try (ResourceSequence sequence = new ResourceSequence(resourceWriter, out.writer())) {
+                for (int i = 0; i < job.getResources().size(); i++) {
+                    report.fragmentProcessed();
+                    report.detail("--- Start processing fragment {} in file '{}'", i + 1, file);
+                    long start = stats.start();
+                    List<Resource> resources = job.getResources().get(i);
+                    for (Resource resource : resources) {
+                        sequence.write(resource);
+                        report.resourceWritten();
+                    }
+                    long fragmentNanos = job.getFragmentNanos()[i]
+                            + (resources.isEmpty() ? 0 : stats.record(RunStats.SERIALIZE, start));
+                    stats.recordFragment(file, i + 1, resources.size(), fragmentNanos);
+                    busyNanos += fragmentNanos;
+                    report.detail("--- Finished processing fragment {} in file '{}'\n", i + 1, file);
+                }
+            }
+            long start = stats.start();
+            out.commit();
+            busyNanos += stats.record(RunStats.WRITE, start);
+            stats.recordFile(file, job.getBytes(), busyNanos);
+        } catch (IOException e) {
+            report.error("Failed to process file '{}'", file, e);
+            report.markFailed();
+            commit(job.getEvent(), report, job.getBytes());
+            return job;
+        }
+
+        report.info("=== Output file is '{}' ===\n", output.outputPath(file));
+        commit(job.getEvent(), report, job.getBytes());
+        return job;
+    }
+
+    List<String> splitFragments(String content) {
+        List<String> fragments = new ArrayList<>();
+        for (String rawDoc : content.split(FRAGMENT_DELIMITER)) {
+            if (rawDoc != null && !rawDoc.isBlank()) {
+                fragments.add(rawDoc);
+            }
+        }
+        return fragments;
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0L;
         }
     }
 
+    private TransformResult logSummary(List<FileReport> reports, ValidationReport validation, Diagnostics diagnostics) {
+        int fragments = 0;
+        int resources = 0;
+        int failed = 0;
+        List<Path> converted = new ArrayList<>(reports.size());
+        for (FileReport report : reports) {
+            fragments += report.getFragments();
+            resources += report.getResources();
+            if (report.isFailed()) {
+                failed++;
+            } else {
+                converted.add(report.getFile());
+            }
+        }
+        diagnostics.logSummary();
+        log.info("Processed {} files ({} fragments, {} resources written), {} failed",
+                reports.size(), fragments, resources, failed);
+        return new TransformResult(reports.size(), failed, fragments, resources, validation.getIssues(), converted);
+    }
+
     boolean isYaml(Path p) {
         String name = p.getFileName().toString().toLowerCase();
         return name.endsWith(".yaml") || name.endsWith(".yml");
     }
 
+    void convertFile(Path file, TransformOptions options, FileReport report, OutputTarget output,
+                     AsyncValidator validator, RunStats stats, ConversionContext context) {
+        FileConversionEvent event = new FileConversionEvent();
+        // Sized up front: in place, the file is the output afterwards.
+        long size = stats.isEnabled() || event.isEnabled() ? sizeOf(file) : 0;
+        event.begin();
+        long start = stats.start();
+        if (options.isPassthrough()) {
+            processFileMapped(file, validator, report, output, stats, context);
+        } else {
+            processFile(file, validator, report, output, stats, context);
+        }
+        stats.recordFile(file, size, System.nanoTime() - start);
+        commit(event, report, size);
+    }
+
+    private static void commit(FileConversionEvent event, FileReport report, long size) {
+        if (event.shouldCommit()) {
+            event.path = report.getFile().toString();
+            event.bytes = size;
+            event.fragments = report.getFragments();
+            event.resources = report.getResources();
+            event.failed = report.isFailed();
+            event.commit();
+        }
+    }
+
     void processFile(Path file, boolean validate) {
-        log.info("=== Processing file '{}' ===", file);
-        Path oldFile = file.resolveSibling(file.getFileName().toString() + "_old");
+        AsyncValidator validator = validate ? new AsyncValidator(resourceValidator, 1) : null;
+        ConversionContext context = ConversionContext.standalone();
+        processFile(file, validator, FileReport.direct(file, log), new InPlaceOutput(), RunStats.DISABLED, context);
+        if (validator != null) {
+            validator.finish().log();
+        }
+        context.diagnostics().logSummary();
+    }
+
+    void processFile(Path file, AsyncValidator validator, FileReport report, OutputTarget output, RunStats stats,
+                     ConversionContext context) {
+        report.info("=== Processing file '{}' ===", file);
 
+        String content;
         try {
-            Files.move(file, oldFile);
+            long start = stats.start();
+            content = Files.readString(file, StandardCharsets.UTF_8);
+            stats.record(RunStats.READ, start);
         } catch (IOException e) {
-            log.error("Failed to rename original file '{}'", file, e);
+            report.error("Failed to read file '{}'", file, e);
+            report.markFailed();
+            return;
+        }
+
+        try (OutputFile out = output.open(file)) {
+            try (ResourceSequence sequence = new ResourceSequence(resourceWriter, out.writer())) {
+                convertFragments(content, file, validator, report, sequence, stats, context);
+            }
+            long start = stats.start();
+            out.commit();
+            stats.record(RunStats.WRITE, start);
+
+        } catch (IOException | ConversionException e) {
+            report.error("Failed to process file '{}'", file, e);
+            report.markFailed();
             return;
         }
 
-        try (Writer writer = Files.newBufferedWriter(file)) {
-            String content = Files.readString(oldFile, StandardCharsets.UTF_8);
-            String[] documents = content.split(FRAGMENT_DELIMITER);
+        report.info("=== Output file is '{}' ===\n", output.outputPath(file));
+    }
+
+    /**
+     * Converts one in-memory YAML stream the way {@link #processFile} converts a file, without touching the
+     * file system; {@code name} only labels validation issues.
+     */
+    public ConversionResult convert(String content, Path name, boolean validate) throws IOException {
+        AsyncValidator validator = validate ? new AsyncValidator(resourceValidator, 1) : null;
+        FileReport report = FileReport.buffered(name, log);
+        StringWriter output = new StringWriter();
+        ValidationReport validation = ValidationReport.EMPTY;
+        ConversionContext context = ConversionContext.standalone();
+        try (ResourceSequence sequence = new ResourceSequence(resourceWriter, output)) {
+            convertFragments(content, name, validator, report, sequence, RunStats.DISABLED, context);
+        } finally {
+            if (validator != null) {
+                validation = validator.finish();
+            }
+        }
+        context.diagnostics().logSummary();
+        return new ConversionResult(output.toString(), report.getFragments(), report.getResources(), validation.getIssues());
+    }
+
+    /**
+     * Converts a multi-document YAML stream, e.g. rendered manifests from a Helm post-renderer. Mesh documents
+     * are routed as rendered, without template preprocessing, all others are copied byte for byte. Documents are read and written one at a time and
+     * {@code out} is flushed after each, so memory does not grow with the stream.
+     */
+    public TransformResult convertStream(InputStream in, OutputStream out, boolean validate) throws IOException {
+        Path name = Path.of("<stdin>");
+        AsyncValidator validator = validate ? new AsyncValidator(resourceValidator, 1) : null;
+        DocumentStreamReader reader = new DocumentStreamReader(in);
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        int fragments = 0;
+        int resources = 0;
+        ValidationReport validation = ValidationReport.EMPTY;
+        ConversionContext context = ConversionContext.standalone();
+        try (ResourceSequence sequence = new ResourceSequence(resourceWriter, writer)) {
+            DocumentStreamReader.Document document;
+            while ((document = reader.next()) != null) {
+                fragments++;
+                List<Resource> routed = null;
+                if (document.meshCandidate()) {
+                    String rawDoc = StandardCharsets.UTF_8.decode(document.content()).toString();
+                    routed = meshResourceRouter.route(TemplatedYaml.rendered(rawDoc), RunStats.DISABLED, context.at(name, fragments));
+                    document.content().rewind();
+                }
 
-            int fragmentIndex = 0;
-            for (String rawDoc : documents) {
-                if (rawDoc == null || rawDoc.isBlank()) {
+                if (routed == null || routed.isEmpty()) {
+                    ByteBuffer content = document.content();
+                    out.write(DOCUMENT_START.getBytes(StandardCharsets.UTF_8));
+                    out.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+                    if (content.get(content.limit() - 1) != '\n') {
+                        out.write('\n');
+                    }
+                } else {
+                    submitForValidation(validator, name, fragments, routed);
+                    for (Resource resource : routed) {
+                        sequence.write(resource);
+                        resources++;
+                    }
+                    sequence.end();
+                    writer.flush();
+                }
+                out.flush();
+            }
+        } finally {
+            if (validator != null) {
+                validation = validator.finish();
+            }
+        }
+        validation.log();
+        context.diagnostics().logSummary();
+        log.info("Processed {} documents ({} resources written)", fragments, resources);
+        return new TransformResult(1, 0, fragments, resources, validation.getIssues(), List.of());
+    }
+
+    private void convertFragments(String content, Path file, AsyncValidator validator, FileReport report,
+                                  ResourceSequence sequence, RunStats stats, ConversionContext context) throws IOException {
+        long start = stats.start();
+        List<String> fragments = splitFragments(content);
+        stats.record(RunStats.SPLIT, start);
+
+        int fragmentIndex = 0;
+        for (String rawDoc : fragments) {
+            fragmentIndex++;
+            report.fragmentProcessed();
+            report.detail("--- Start processing fragment {} in file '{}'", fragmentIndex, file);
+            long fragmentStart = stats.start();
+            FragmentConversionEvent event = new FragmentConversionEvent();
+            event.begin();
+            int written = 0;
+            try {
+                start = stats.start();
+                TemplatedYaml document = yamlPreprocessor.preprocessYaml(rawDoc);
+                stats.record(RunStats.PREPROCESS, start);
+                List<Resource> resources = meshResourceRouter.route(document, stats, context.at(file, fragmentIndex));
+                commit(event, file, fragmentIndex, rawDoc.length(), resources);
+                if (resources == null || resources.isEmpty()) {
                     continue;
                 }
 
-                fragmentIndex++;
-                log.info("--- Start processing fragment {} in file '{}'", fragmentIndex, file);
-                try {
-                    JsonNode node = yamlPreprocessor.readAsJsonNode(rawDoc);
-                    if (node == null) {
-                        continue;
+                submitForValidation(validator, file, fragmentIndex, resources);
+                start = stats.start();
+                for (Resource resource : resources) {
+                    sequence.write(resource);
+                    report.resourceWritten();
+                    written++;
+                }
+                stats.record(RunStats.SERIALIZE, start);
+            } finally {
+                stats.recordFragment(file, fragmentIndex, written, System.nanoTime() - fragmentStart);
+                report.detail("--- Finished processing fragment {} in file '{}'\n", fragmentIndex, file);
+            }
+        }
+    }
+
+    // Maps the input and indexes document boundaries on the raw bytes. Only Mesh candidates are decoded and
+    // parsed; every other document, and any Mesh document nothing was generated for, is copied to the
+    // output unchanged with a channel transfer.
+    void processFileMapped(Path file, AsyncValidator validator, FileReport report, OutputTarget output, RunStats stats,
+                           ConversionContext context) {
+        report.info("=== Processing file '{}' ===", file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                report.error("File '{}' is too large to map ({} bytes)", file, size);
+                report.markFailed();
+                return;
+            }
+            long start = stats.start();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            stats.record(RunStats.READ, start);
+            start = stats.start();
+            List<FragmentIndex.Fragment> fragments = FragmentIndex.build(buffer);
+            stats.record(RunStats.SPLIT, start);
+
+            try (OutputFile out = output.open(file); ResourceSequence sequence = new ResourceSequence(resourceWriter, out.writer())) {
+                Writer writer = out.writer();
+
+                int fragmentIndex = 0;
+                for (FragmentIndex.Fragment fragment : fragments) {
+                    fragmentIndex++;
+                    report.fragmentProcessed();
+                    long fragmentStart = stats.start();
+                    List<Resource> resources = List.of();
+                    if (fragment.meshCandidate()) {
+                        report.detail("--- Start processing fragment {} in file '{}'", fragmentIndex, file);
+                        FragmentConversionEvent event = new FragmentConversionEvent();
+                        event.begin();
+                        start = stats.start();
+                        String rawDoc = StandardCharsets.UTF_8.decode(buffer.slice(fragment.offset(), fragment.length())).toString();
+                        TemplatedYaml document = yamlPreprocessor.preprocessYaml(rawDoc);
+                        stats.record(RunStats.PREPROCESS, start);
+                        List<Resource> routed = meshResourceRouter.route(document, stats, context.at(file, fragmentIndex));
+                        resources = routed == null ? List.of() : routed;
+                        commit(event, file, fragmentIndex, fragment.length(), resources);
+                        report.detail("--- Finished processing fragment {} in file '{}'\n", fragmentIndex, file);
                     }
 
-                    List<Resource> resources = meshResourceRouter.route(node);
-                    if (resources == null || resources.isEmpty()) {
+                    if (resources.isEmpty()) {
+                        start = stats.start();
+                        sequence.end();
+                        writer.write(DOCUMENT_START);
+                        out.transferFrom(channel, fragment.offset(), fragment.length());
+                        if (buffer.get(fragment.offset() + fragment.length() - 1) != '\n') {
+                            writer.write('\n');
+                        }
+                        stats.record(RunStats.WRITE, start);
+                        stats.recordFragment(file, fragmentIndex, 0, System.nanoTime() - fragmentStart);
                         continue;
                     }
 
+                    submitForValidation(validator, file, fragmentIndex, resources);
+                    start = stats.start();
                     for (Resource resource : resources) {
-                        if (validate) {
-                            resourceValidator.validateResource(resource);
-                        }
-                        writer.write(mapper.writeValueAsString(resource));
+                        sequence.write(resource);
+                        report.resourceWritten();
                     }
-                } finally {
-                    log.info("--- Finished processing fragment {} in file '{}'\n", fragmentIndex, file);
+                    stats.record(RunStats.SERIALIZE, start);
+                    stats.recordFragment(file, fragmentIndex, resources.size(), System.nanoTime() - fragmentStart);
                 }
+                sequence.end();
+                start = stats.start();
+                out.commit();
+                stats.record(RunStats.WRITE, start);
             }
-
-        } catch (IOException e) {
-            log.error("Failed to process file '{}'", file, e);
+        } catch (IOException | ConversionException e) {
+            report.error("Failed to process file '{}'", file, e);
+            report.markFailed();
             return;
         }
 
-        log.info("=== Output file is '{}' ===\n", file);
+        report.info("=== Output file is '{}' ===\n", output.outputPath(file));
     }
 }
@@ -0,0 +1,127 @@
+package org.qubership.remesh.diagnostics;
+
+import com.fasterxml.jackson.core.JsonStreamContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of repeated conversion warnings for one run, so the hot path increments a counter instead of formatting
+ * and logging every occurrence. Unknown properties are counted per type, property and path template (array indices
+ * collapsed to {@code [*]}), other warnings per message and subject. {@link #logSummary()} logs and clears them at
+ * the end of the run. With DEBUG enabled ({@code --verbose}) every occurrence is logged as well.
+ * Each run creates its own instance, so concurrent server requests and watch cycles are counted apart.
+ */
+@Slf4j
+public final class Diagnostics {
+    private final Map<UnknownPropertyKey, LongAdder> unknownProperties = new ConcurrentHashMap<>();
+    private final Map<Warning, LongAdder> warnings = new ConcurrentHashMap<>();
+
+    public record UnknownProperty(String type, String property, String path, long count) {
+    }
+
+    public record Warning(String message, String subject) {
+    }
+
+    public record WarningCount(String message, String subject, long count) {
+    }
+
+    public record Summary(List<UnknownProperty> unknownProperties, List<WarningCount> warnings) {
+
+        public boolean isEmpty() {
+            return unknownProperties.isEmpty() && warnings.isEmpty();
+        }
+    }
+
+    public static boolean isVerbose() {
+        return log.isDebugEnabled();
+    }
+
+    /**
+     * Counts an unknown property met under {@code parent}, the parsing context of the object holding it.
+     */
+    public void unknownProperty(Class<?> type, String property, JsonStreamContext parent) {
+        unknownProperties.computeIfAbsent(new UnknownPropertyKey(type, property, pathTemplate(parent, property)),
+                k -> new LongAdder()).increment();
+    }
+
+    public void warn(String message, String subject) {
+        warnings.computeIfAbsent(new Warning(message, subject), w -> new LongAdder()).increment();
+        if (log.isDebugEnabled()) {
+            log.debug("    {}: {}", message, subject);
+        }
+    }
+
+    /**
+     * Returns the counts collected since the last drain, most frequent first, and clears them.
+     */
+    public Summary drain() {
+        List<UnknownProperty> unknown = new ArrayList<>();
+        for (UnknownPropertyKey key : unknownProperties.keySet()) {
+            LongAdder count = unknownProperties.remove(key);
+            if (count != null) {
+                unknown.add(new UnknownProperty(key.type().getSimpleName(), key.property(), key.path(), count.sum()));
+            }
+        }
+        List<WarningCount> counts = new ArrayList<>();
+        for (Warning warning : warnings.keySet()) {
+            LongAdder count = warnings.remove(warning);
+            if (count != null) {
+                counts.add(new WarningCount(warning.message(), warning.subject(), count.sum()));
+            }
+        }
+        unknown.sort(Comparator.comparingLong(UnknownProperty::count).reversed()
+                .thenComparing(UnknownProperty::path));
+        counts.sort(Comparator.comparingLong(WarningCount::count).reversed()
+                .thenComparing(WarningCount::message).thenComparing(WarningCount::subject));
+        return new Summary(unknown, counts);
+    }
+
+    public void logSummary() {
+        Summary summary = drain();
+        if (summary.isEmpty()) {
+            return;
+        }
+        for (UnknownProperty unknown : summary.unknownProperties()) {
+            log.warn("Unknown YAML property '{}' for type '{}' at {}: {} times",
+                    unknown.property(), unknown.type(), unknown.path(), unknown.count());
+        }
+        for (WarningCount warning : summary.warnings()) {
+            log.warn("{}: {} ({} times)", warning.message(), warning.subject(), warning.count());
+        }
+        if (!isVerbose()) {
+            log.info("Run with --verbose to log every occurrence");
+        }
+    }
+
+    static String pathTemplate(JsonStreamContext context, String property) {
+        List<String> segments = new ArrayList<>();
+        for (JsonStreamContext ctx = context; ctx != null && ctx.getParent() != null; ctx = ctx.getParent()) {
+            if (ctx.inArray()) {
+                segments.add("[*]");
+            } else if (ctx.inObject() && ctx.getCurrentName() != null) {
+                segments.add(ctx.getCurrentName());
+            }
+        }
+        StringBuilder path = new StringBuilder();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            String segment = segments.get(i);
+            if (!path.isEmpty() && !segment.equals("[*]")) {
+                path.append('.');
+            }
+            path.append(segment);
+        }
+        if (!path.isEmpty()) {
+            path.append('.');
+        }
+        return path.append(property).toString();
+    }
+
+    private record UnknownPropertyKey(Class<?> type, String property, String path) {
+    }
+}
@@ -0,0 +1,32 @@
+package org.qubership.remesh.handler;
+
+import org.qubership.remesh.diagnostics.Diagnostics;
+import org.qubership.remesh.util.Re2Regex;
+
+import java.nio.file.Path;
+
+/**
+ * State of one conversion run handed to the router and handlers, so that runs sharing a JVM, such as concurrent
+ * server requests, do not share it. {@code file} and {@code fragment} locate the document being converted, when
+ * known, for events and messages.
+ */
+public record ConversionContext(Diagnostics diagnostics, int regexProgramBudget, Path file, int fragment) {
+
+    public ConversionContext(Diagnostics diagnostics, int regexProgramBudget) {
+        this(diagnostics, regexProgramBudget, null, 0);
+    }
+
+    /**
+     * A context of its own, for conversions outside a run such as direct handler calls.
+     */
+    public static ConversionContext standalone() {
+        return new ConversionContext(new Diagnostics(), Re2Regex.DEFAULT_PROGRAM_BUDGET);
+    }
+
+    /**
+     * This run's context for the 1-based {@code fragment} of {@code file}.
+     */
+    public ConversionContext at(Path file, int fragment) {
+        return new ConversionContext(diagnostics, regexProgramBudget, file, fragment);
+    }
+}
@@ -0,0 +1,12 @@
+package org.qubership.remesh.handler;
+
+/**
+ * Thrown by a handler when a resource can't be converted without changing what it matches. The file is
+ * reported as failed rather than written with a weaker resource.
+ */
+public class ConversionException extends RuntimeException {
+
+    public ConversionException(String message) {
+        super(message);
+    }
+}
@@ -1,10 +1,29 @@
 package org.qubership.remesh.handler;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.io.IOException;
 import java.util.List;
 
 public interface CrHandler {
     String getKind();
     List<Resource> handle(JsonNode node);
+
+    // called by the streaming router with a parser positioned before the document; override to bind
+    // straight into a DTO instead of going through a tree
+    default List<Resource> handle(JsonParser parser) throws IOException {
+        JsonNode node = parser.readValueAsTree();
+        return node == null ? List.of() : handle(node);
+    }
+
+    // called by the router with the state of the current run; override to report into its diagnostics
+    default List<Resource> handle(JsonParser parser, ConversionContext context) throws IOException {
+        return handle(parser);
+    }
+
+    // bump when the mapping changes, so incremental runs reconvert files handled by this handler
+    default String getVersion() {
+        return "1";
+    }
 }
@@ -4,6 +4,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.stream.Collectors;
 
 public final class CrHandlerRegistry {
     private static final Map<String, CrHandler> HANDLERS = loadHandlers();
@@ -12,6 +13,13 @@ public final class CrHandlerRegistry {
         return HANDLERS.get(kind);
     }
 
+    public static String fingerprint() {
+        return HANDLERS.values().stream()
+                .map(handler -> handler.getKind() + ":" + handler.getClass().getName() + ":" + handler.getVersion())
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
     private static Map<String, CrHandler> loadHandlers() {
         Map<String, CrHandler> result = new HashMap<>();
 
@@ -0,0 +1,57 @@
+package org.qubership.remesh.handler;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.util.function.BiPredicate;
+
+/**
+ * Top-level routing fields of a document, read from the token stream without building a tree.
+ */
+record DocumentHeader(String apiVersion, String kind, String subKind) {
+    private static final DocumentHeader EMPTY = new DocumentHeader(null, null, null);
+
+    boolean isComplete() {
+        return apiVersion != null && kind != null && subKind != null;
+    }
+
+    /**
+     * Reads top-level fields until all three are known, copying every consumed token into {@code consumed} so the
+     * document can still be bound in one pass. Stops early once {@code apiVersion} and {@code kind} are known and
+     * rejected by {@code candidate}.
+     */
+    static DocumentHeader read(JsonParser parser, TokenBuffer consumed, BiPredicate<String, String> candidate) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return EMPTY;
+        }
+        consumed.copyCurrentEvent(parser);
+
+        String apiVersion = null;
+        String kind = null;
+        String subKind = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            consumed.copyCurrentEvent(parser);
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "apiVersion" -> apiVersion = text(parser);
+                case "kind" -> kind = text(parser);
+                case "subKind" -> subKind = text(parser);
+                default -> { }
+            }
+            consumed.copyCurrentStructure(parser);
+
+            if (apiVersion != null && kind != null && (subKind != null || !candidate.test(apiVersion, kind))) {
+                break;
+            }
+        }
+        return new DocumentHeader(apiVersion, kind, subKind);
+    }
+
+    // same text JsonNode.asText() gives: scalars as written, containers as empty
+    private static String text(JsonParser parser) throws IOException {
+        return parser.currentToken().isScalarValue() ? parser.getText() : "";
+    }
+}
@@ -0,0 +1,301 @@
+package org.qubership.remesh.handler;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.qubership.remesh.diagnostics.Diagnostics;
+import org.qubership.remesh.dto.gatewayapi.HttpRoute;
+import org.qubership.remesh.util.ObjectMapperProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * Post-processing of the rules of one generated {@code HTTPRoute}: pruning of unreachable rules, compaction and
+ * sharding within the CRD and API server limits.
+ */
+@Slf4j
+final class HttpRouteRules {
+    // HTTPRoute.spec.rules[].matches maxItems
+    static final int MAX_MATCHES_PER_RULE = 64;
+    // HTTPRoute.spec.rules maxItems
+    static final int MAX_RULES_PER_ROUTE = 16;
+    // HTTPRoute.spec.rules CEL validation: matches across all rules of a route
+    static final int MAX_MATCHES_PER_ROUTE = 128;
+    // etcd rejects requests over 1.5 MiB by default; half of it leaves room for managedFields and status
+    static final long MAX_ROUTE_BYTES = 768 * 1024;
+
+    private static final ObjectWriter SIZE_WRITER = ObjectMapperProvider.getMapper().copyWith(new JsonFactory()).writer();
+
+    /**
+     * Drops rules that can never be selected. The source rules are matched in order, so a rule whose match is covered
+     * by an earlier one (same or shorter path prefix, a subset of its header, query and method conditions) is dead
+     * there. Gateway API instead prefers the more specific match, so removing it is only safe when it changes nothing:
+     * <ul>
+     *     <li>an identical match of an earlier rule always wins the tie by rule order, so duplicates are dropped;</li>
+     *     <li>a covered rule is dropped if it and every rule whose path overlaps it have the same filters and
+     *     backends and none of them replaces the matched prefix, since whichever of them wins does the same.</li>
+     * </ul>
+     * Other covered rules are kept and reported, as Gateway API will route some requests to them that the source
+     * configuration never did. Only rules with at most one match are considered, which is what the handler emits
+     * before compaction.
+     */
+    static List<HttpRoute.Rule> dropUnreachable(List<HttpRoute.Rule> rules, Diagnostics diagnostics) {
+        RulePathTrie trie = new RulePathTrie();
+        for (int i = 0; i < rules.size(); i++) {
+            List<HttpRoute.Match> matches = rules.get(i).getMatches();
+            if (matches == null || matches.isEmpty()) {
+                trie.add(i, null);
+            } else {
+                for (HttpRoute.Match match : matches) {
+                    trie.add(i, match);
+                }
+            }
+        }
+
+        BitSet removed = new BitSet(rules.size());
+        for (int j = 0; j < rules.size(); j++) {
+            HttpRoute.Rule rule = rules.get(j);
+            if (rule.getMatches() != null && rule.getMatches().size() > 1) {
+                continue;
+            }
+            HttpRoute.Match match = rule.getMatches() == null || rule.getMatches().isEmpty() ? null : rule.getMatches().getFirst();
+            RulePathTrie.Entry cover = null;
+            boolean duplicate = false;
+            for (RulePathTrie.Entry entry : trie.covering(match)) {
+                if (entry.rule() < j && !removed.get(entry.rule()) && conditionsCover(entry.match(), match)) {
+                    cover = cover == null ? entry : cover;
+                    duplicate |= Objects.equals(entry.match(), match);
+                }
+            }
+            if (cover == null) {
+                continue;
+            }
+
+            String path = new RulePathTrie.Entry(j, match).path();
+            if (duplicate) {
+                log.debug("    Dropping duplicate rule for path {}", path);
+                removed.set(j);
+            } else if (isInterchangeable(rules, j, trie, match, removed)) {
+                log.debug("    Dropping rule for path {} shadowed by rule for path {}", path, cover.path());
+                removed.set(j);
+            } else {
+                diagnostics.warn("Shadowed rule kept, HTTPRoute prefers the more specific match, path", path);
+            }
+        }
+
+        if (removed.isEmpty()) {
+            return rules;
+        }
+        List<HttpRoute.Rule> result = new ArrayList<>(rules.size() - removed.cardinality());
+        for (int i = 0; i < rules.size(); i++) {
+            if (!removed.get(i)) {
+                result.add(rules.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Merges runs of consecutive rules with the same filters and backends into one rule holding all their matches.
+     * Gateway API ranks each match on its own and breaks ties by rule order, so merging neighbours changes neither.
+     * Rules without matches (match everything) and rules rewriting or redirecting with {@code ReplacePrefixMatch},
+     * which must have exactly one {@code PathPrefix} match, are left alone. Merged rules hold up to
+     * {@link #MAX_MATCHES_PER_RULE} matches, so the route total must be kept under {@link #MAX_MATCHES_PER_ROUTE}
+     * by {@link #shard}.
+     */
+    static List<HttpRoute.Rule> compact(List<HttpRoute.Rule> rules) {
+        List<HttpRoute.Rule> result = new ArrayList<>(rules.size());
+        HttpRoute.Rule current = null;
+        for (HttpRoute.Rule rule : rules) {
+            if (current != null && canMerge(current, rule)) {
+                for (HttpRoute.Match match : rule.getMatches()) {
+                    if (!current.getMatches().contains(match)) {
+                        current.getMatches().add(match);
+                    }
+                }
+                continue;
+            }
+            if (isMergeable(rule)) {
+                current = new HttpRoute.Rule();
+                current.setName(rule.getName());
+                current.setMatches(new ArrayList<>(rule.getMatches()));
+                current.setFilters(rule.getFilters());
+                current.setBackendRefs(rule.getBackendRefs());
+                result.add(current);
+            } else {
+                current = null;
+                result.add(rule);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Splits rules into contiguous shards of at most {@link #MAX_RULES_PER_ROUTE} rules,
+     * {@link #MAX_MATCHES_PER_ROUTE} matches and {@code budget} bytes each, as measured by {@code size}. The shard
+     * count is the smallest all three limits allow, and rules are spread evenly over the shards, so no shard is much
+     * larger than the others; a shard is closed early when the next rule would pass the match or byte limit. A single
+     * rule larger than the budget gets a shard of its own. Keeping shards contiguous keeps the rules in their original
+     * order across shards.
+     */
+    static List<List<HttpRoute.Rule>> shard(List<HttpRoute.Rule> rules, ToLongFunction<HttpRoute.Rule> size, long budget,
+                                            Diagnostics diagnostics) {
+        long[] sizes = new long[rules.size()];
+        int[] matches = new int[rules.size()];
+        long total = 0;
+        int totalMatches = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = size.applyAsLong(rules.get(i));
+            matches[i] = matchCount(rules.get(i));
+            total += sizes[i];
+            totalMatches += matches[i];
+        }
+        if (rules.size() <= MAX_RULES_PER_ROUTE && totalMatches <= MAX_MATCHES_PER_ROUTE && total <= budget) {
+            return List.of(rules);
+        }
+
+        int shards = (int) Math.max(Math.max(Math.ceilDiv(rules.size(), MAX_RULES_PER_ROUTE),
+                Math.ceilDiv(totalMatches, MAX_MATCHES_PER_ROUTE)), Math.ceilDiv(total, Math.max(1, budget)));
+        List<List<HttpRoute.Rule>> result = new ArrayList<>(shards);
+        List<HttpRoute.Rule> current = new ArrayList<>();
+        int capacity = Math.ceilDiv(rules.size(), shards);
+        long bytes = 0;
+        int matchesInShard = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            if (!current.isEmpty() && (current.size() == capacity || bytes + sizes[i] > budget
+                    || matchesInShard + matches[i] > MAX_MATCHES_PER_ROUTE)) {
+                result.add(current);
+                current = new ArrayList<>();
+                capacity = Math.min(MAX_RULES_PER_ROUTE, Math.ceilDiv(sizes.length - i, Math.max(1, shards - result.size())));
+                bytes = 0;
+                matchesInShard = 0;
+            }
+            if (sizes[i] > budget) {
+                diagnostics.warn("HTTPRoute rule larger than the size budget, size in bytes", String.valueOf(sizes[i]));
+            }
+            current.add(rules.get(i));
+            bytes += sizes[i];
+            matchesInShard += matches[i];
+        }
+        if (!current.isEmpty()) {
+            result.add(current);
+        }
+        return result;
+    }
+
+    // a rule without matches is defaulted to one "/" prefix match by the API server
+    private static int matchCount(HttpRoute.Rule rule) {
+        return rule.getMatches() == null || rule.getMatches().isEmpty() ? 1 : rule.getMatches().size();
+    }
+
+    /**
+     * Size of {@code value} as JSON, the form the API server stores.
+     */
+    static long jsonSize(Object value) {
+        CountingOutputStream out = new CountingOutputStream();
+        try {
+            SIZE_WRITER.writeValue(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.count;
+    }
+
+    private static boolean isInterchangeable(List<HttpRoute.Rule> rules, int j, RulePathTrie trie, HttpRoute.Match match,
+                                             BitSet removed) {
+        HttpRoute.Rule rule = rules.get(j);
+        if (replacesPrefix(rule)) {
+            return false;
+        }
+        boolean[] interchangeable = {true};
+        trie.overlapping(match, entry -> {
+            if (entry.rule() != j && !removed.get(entry.rule()) && !sameAction(rule, rules.get(entry.rule()))) {
+                interchangeable[0] = false;
+            }
+        });
+        return interchangeable[0];
+    }
+
+    private static boolean sameAction(HttpRoute.Rule rule, HttpRoute.Rule other) {
+        return !replacesPrefix(other)
+                && Objects.equals(rule.getFilters(), other.getFilters())
+                && Objects.equals(rule.getBackendRefs(), other.getBackendRefs());
+    }
+
+    // every request matching the non-path conditions of match also matches those of cover
+    private static boolean conditionsCover(HttpRoute.Match cover, HttpRoute.Match match) {
+        if (cover == null) {
+            return true;
+        }
+        if (match == null) {
+            return isEmpty(cover.getHeaders()) && isEmpty(cover.getQueryParams()) && cover.getMethod() == null;
+        }
+        return containsAll(match.getHeaders(), cover.getHeaders())
+                && containsAll(match.getQueryParams(), cover.getQueryParams())
+                && (cover.getMethod() == null || cover.getMethod().equals(match.getMethod()));
+    }
+
+    private static boolean containsAll(List<?> conditions, List<?> required) {
+        return isEmpty(required) || conditions != null && conditions.containsAll(required);
+    }
+
+    private static boolean isEmpty(List<?> list) {
+        return list == null || list.isEmpty();
+    }
+
+    private static boolean canMerge(HttpRoute.Rule current, HttpRoute.Rule next) {
+        return isMergeable(next)
+                && current.getMatches().size() + next.getMatches().size() <= MAX_MATCHES_PER_RULE
+                && Objects.equals(current.getFilters(), next.getFilters())
+                && Objects.equals(current.getBackendRefs(), next.getBackendRefs());
+    }
+
+    private static boolean isMergeable(HttpRoute.Rule rule) {
+        return rule.getName() == null && rule.getMatches() != null && !rule.getMatches().isEmpty() && !replacesPrefix(rule);
+    }
+
+    private static boolean replacesPrefix(HttpRoute.Rule rule) {
+        if (rule.getFilters() != null) {
+            for (HttpRoute.Filter filter : rule.getFilters()) {
+                if (replacesPrefix(filter)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean replacesPrefix(HttpRoute.Filter filter) {
+        HttpRoute.PathRewrite rewrite = filter.getUrlRewrite() != null ? filter.getUrlRewrite().getPath() : null;
+        HttpRoute.PathRewrite redirect = filter.getRequestRedirect() != null ? filter.getRequestRedirect().getPath() : null;
+        return isReplacePrefixMatch(rewrite) || isReplacePrefixMatch(redirect);
+    }
+
+    private static boolean isReplacePrefixMatch(HttpRoute.PathRewrite path) {
+        return path != null && path.getType() == HttpRoute.PathRewriteType.ReplacePrefixMatch;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    private HttpRouteRules() {
+    }
+}
@@ -1,8 +1,17 @@
 package org.qubership.remesh.handler;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.JsonParserSequence;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import lombok.extern.slf4j.Slf4j;
+import org.qubership.remesh.jfr.HandlerInvocationEvent;
+import org.qubership.remesh.serialization.TemplatedYaml;
+import org.qubership.remesh.stats.RunStats;
+import org.qubership.remesh.util.ObjectMapperProvider;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
@@ -13,6 +22,7 @@ public class MeshResourceRouter {
     private static final String MESH_KIND = "Mesh";
 
     private final Function<String, CrHandler> handlerProvider;
+    private final ObjectMapper mapper = ObjectMapperProvider.getMapper();
 
     public MeshResourceRouter() {
         this(CrHandlerRegistry::get);
@@ -53,7 +63,61 @@ public class MeshResourceRouter {
         return resources;
     }
 
+    public List<Resource> route(TemplatedYaml document) {
+        return route(document, RunStats.DISABLED, ConversionContext.standalone());
+    }
+
+    // Reads the top-level routing fields from the token stream and, for a Mesh resource with a registered handler,
+    // hands the same stream on to it: the consumed tokens are replayed from a buffer, then parsing continues.
+    // Other documents are never materialized. Reading the header is timed as the route stage, the handler
+    // separately per subKind.
+    public List<Resource> route(TemplatedYaml document, RunStats stats, ConversionContext context) {
+        List<Resource> resources;
+        long start = stats.start();
+        try (JsonParser parser = document.createParser(mapper)) {
+            TokenBuffer consumed = new TokenBuffer(parser);
+            DocumentHeader header = DocumentHeader.read(parser, consumed, this::isMeshResource);
+            if (!header.isComplete() || !isMeshResource(header.apiVersion(), header.kind())) {
+                stats.record(RunStats.ROUTE, start);
+                return List.of();
+            }
+
+            CrHandler handler = handlerProvider.apply(header.subKind());
+            stats.record(RunStats.ROUTE, start);
+            if (handler == null) {
+                context.diagnostics().warn("Handler not found for kind", header.subKind());
+                return List.of();
+            }
+
+            HandlerInvocationEvent event = new HandlerInvocationEvent();
+            event.begin();
+            long handleStart = stats.start();
+            resources = handler.handle(JsonParserSequence.createFlattened(false, consumed.asParser(parser), parser), context);
+            stats.record(RunStats.HANDLE + header.subKind(), handleStart);
+            if (event.shouldCommit()) {
+                event.path = context.file() == null ? null : context.file().toString();
+                event.fragment = context.fragment();
+                event.subKind = header.subKind();
+                event.bytes = document.text().length();
+                event.resources = resources == null ? 0 : resources.size();
+                event.commit();
+            }
+        } catch (IOException e) {
+            log.warn("    Failed to parse document, skipping. Cause: {}", e.getMessage());
+            return List.of();
+        }
+        if (resources == null) {
+            return Collections.emptyList();
+        }
+
+        return resources;
+    }
+
     boolean isMeshResource(JsonNode apiVersion, JsonNode kind) {
-        return CORE_NETCRACKER_COM_API_VERSION.equals(apiVersion.asText()) && MESH_KIND.equals(kind.asText());
+        return isMeshResource(apiVersion.asText(), kind.asText());
+    }
+
+    boolean isMeshResource(String apiVersion, String kind) {
+        return CORE_NETCRACKER_COM_API_VERSION.equals(apiVersion) && MESH_KIND.equals(kind);
     }
 }
@@ -1,6 +1,6 @@
 package org.qubership.remesh.handler;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import lombok.extern.slf4j.Slf4j;
 import org.qubership.remesh.dto.HeaderDefinition;
@@ -17,11 +17,13 @@ import org.qubership.remesh.dto.gatewayapi.HttpRoute;
 import org.qubership.remesh.util.EndpointDTO;
 import org.qubership.remesh.util.EndpointParser;
 import org.qubership.remesh.util.ObjectMapperProvider;
+import org.qubership.remesh.util.Re2Regex;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Locale;
 
 @Slf4j
 public class RouteConfigurationHandler implements CrHandler {
@@ -30,32 +32,108 @@ public class RouteConfigurationHandler implements CrHandler {
         return "RouteConfiguration";
     }
 
+    @Override
+    public String getVersion() {
+        return "2";
+    }
+
     @Override
     public List<Resource> handle(JsonNode node) {
+        ConversionContext context = ConversionContext.standalone();
         try {
-            List<Resource> result = new ArrayList<>();
+            return toResources(ObjectMapperProvider.readerFor(RouteConfigurationYaml.class, context.diagnostics())
+                    .readValue(node), context);
+        }
+        catch (IllegalArgumentException | IOException e) {
+            log.error("Cannot deserialize RouteConfiguration", e);
+            return Collections.emptyList();
+        }
+    }
 
-            RouteConfigurationYaml original = ObjectMapperProvider.getMapper().treeToValue(node, RouteConfigurationYaml.class);
+    @Override
+    public List<Resource> handle(JsonParser parser) {
+        return handle(parser, ConversionContext.standalone());
+    }
 
-            if (original.getSpec() != null && original.getSpec().getVirtualServices() != null) {
-                for (VirtualService vs : original.getSpec().getVirtualServices()) {
-                    HttpRoute httpRoute = toHttpRoute(original, vs);
-                    result.add(httpRoute);
-                }
-            }
-            return result;
+    @Override
+    public List<Resource> handle(JsonParser parser, ConversionContext context) {
+        try {
+            return toResources(ObjectMapperProvider.readerFor(RouteConfigurationYaml.class, context.diagnostics())
+                    .readValue(parser), context);
         }
-        catch (IllegalArgumentException | JsonProcessingException e) {
+        catch (IllegalArgumentException | IOException e) {
             log.error("Cannot deserialize RouteConfiguration", e);
             return Collections.emptyList();
         }
     }
 
-    private HttpRoute toHttpRoute(RouteConfigurationYaml routeConfiguration, VirtualService virtualService) {
+    private List<Resource> toResources(RouteConfigurationYaml original, ConversionContext context) {
+        List<Resource> result = new ArrayList<>();
+        if (original != null && original.getSpec() != null && original.getSpec().getVirtualServices() != null) {
+            List<VirtualService> virtualServices = original.getSpec().getVirtualServices();
+            for (int i = 0; i < virtualServices.size(); i++) {
+                result.addAll(toHttpRoutes(original, virtualServices.get(i), i, context));
+            }
+        }
+        return result;
+    }
+
+    // One HTTPRoute per VirtualService, split into "<name>-<virtual service>-http-route-<nn>" shards when its rules
+    // exceed the CRD rule limit or the size budget. Shard numbers have a fixed width so that names don't change
+    // with the shard count and the name order, which breaks precedence ties between routes, follows the rule order.
+    private List<HttpRoute> toHttpRoutes(RouteConfigurationYaml routeConfiguration, VirtualService virtualService,
+                                         int index, ConversionContext context) {
         HttpRoute httpRoute = new HttpRoute();
         httpRoute.setMetadata(metadataToHttpRouteMetadata(routeConfiguration.getMetadata()));
-        httpRoute.setSpec(virtualServiceToHttpRouteSpec(routeConfiguration, virtualService));
-        return httpRoute;
+        HttpRoute.HttpRouteSpec spec = virtualServiceToHttpRouteSpec(routeConfiguration, virtualService, context);
+        httpRoute.setSpec(spec);
+
+        List<HttpRoute.Rule> rules = spec.getRules();
+        spec.setRules(null);
+        long budget = HttpRouteRules.MAX_ROUTE_BYTES - HttpRouteRules.jsonSize(httpRoute);
+        List<List<HttpRoute.Rule>> shards = HttpRouteRules.shard(rules, HttpRouteRules::jsonSize, budget, context.diagnostics());
+        if (shards.size() == 1) {
+            spec.setRules(rules);
+            return List.of(httpRoute);
+        }
+
+        String prefix = shardPrefix(routeConfiguration.getMetadata(), virtualService, index);
+        List<HttpRoute> result = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            HttpRoute shard = new HttpRoute();
+            shard.setMetadata(shardMetadata(httpRoute.getMetadata(), String.format("%s-%02d", prefix, i + 1)));
+            HttpRoute.HttpRouteSpec shardSpec = new HttpRoute.HttpRouteSpec();
+            shardSpec.setParentRefs(spec.getParentRefs());
+            shardSpec.setHostnames(spec.getHostnames());
+            shardSpec.setRules(shards.get(i));
+            shard.setSpec(shardSpec);
+            result.add(shard);
+        }
+        return result;
+    }
+
+    // Virtual services of one RouteConfiguration share its name, so shards carry the virtual service name, or
+    // its position when it has none, to keep the shards of different virtual services apart.
+    private String shardPrefix(Metadata metadata, VirtualService virtualService, int index) {
+        String name = metadata != null && metadata.getName() != null && !metadata.getName().isEmpty()
+                ? metadata.getName() : "generated";
+        String virtualServiceName = virtualService.getName();
+        if (virtualServiceName == null || virtualServiceName.isEmpty()) {
+            virtualServiceName = "vs" + (index + 1);
+        } else if (!virtualServiceName.contains("{{")) {
+            virtualServiceName = virtualServiceName.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9.-]", "-");
+        }
+        return name + "-" + virtualServiceName + "-http-route";
+    }
+
+    private HttpRoute.Metadata shardMetadata(HttpRoute.Metadata metadata, String name) {
+        HttpRoute.Metadata result = new HttpRoute.Metadata();
+        result.setName(name);
+        if (metadata != null) {
+            result.setNamespace(metadata.getNamespace());
+            result.setLabels(metadata.getLabels());
+        }
+        return result;
     }
 
     private HttpRoute.Metadata metadataToHttpRouteMetadata(Metadata metadata) {
@@ -77,11 +155,12 @@ public class RouteConfigurationHandler implements CrHandler {
         return "generated-http-route";
     }
 
-    private HttpRoute.HttpRouteSpec virtualServiceToHttpRouteSpec(RouteConfigurationYaml routeConfiguration, VirtualService virtualService) {
+    private HttpRoute.HttpRouteSpec virtualServiceToHttpRouteSpec(RouteConfigurationYaml routeConfiguration, VirtualService virtualService,
+                                                                  ConversionContext context) {
         HttpRoute.HttpRouteSpec result = new HttpRoute.HttpRouteSpec();
         result.setParentRefs(gatewaysToParentReferences(routeConfiguration));
         result.setHostnames(hostsToHostnames(virtualService));
-        result.setRules(routeRulesToRules(virtualService));
+        result.setRules(HttpRouteRules.compact(HttpRouteRules.dropUnreachable(routeRulesToRules(virtualService, context), context.diagnostics())));
         return result;
     }
 
@@ -100,7 +179,7 @@ public class RouteConfigurationHandler implements CrHandler {
     }
 
     // rules — flatten RouteConfig.Routes[*].Rules[*]
-    private List<HttpRoute.Rule> routeRulesToRules(VirtualService virtualService) {
+    private List<HttpRoute.Rule> routeRulesToRules(VirtualService virtualService, ConversionContext context) {
         List<HttpRoute.Rule> result = new ArrayList<>();
         RouteConfig routeConfig = virtualService.getRouteConfiguration();
         if (routeConfig != null && routeConfig.getRoutes() != null) {
@@ -118,7 +197,7 @@ public class RouteConfigurationHandler implements CrHandler {
 
                     // match
                     List<HttpRoute.Match> matches = new ArrayList<>();
-                    HttpRoute.Match match = toMatch(rule.getMatch());
+                    HttpRoute.Match match = toMatch(rule.getMatch(), context);
                     if (match != null) {
                         matches.add(match);
                     }
@@ -243,7 +322,7 @@ public class RouteConfigurationHandler implements CrHandler {
         return parentRefs;
     }
 
-    HttpRoute.Match toMatch(RouteMatch match) {
+    HttpRoute.Match toMatch(RouteMatch match, ConversionContext context) {
         if (match == null) {
             return null;
         }
@@ -269,7 +348,7 @@ public class RouteConfigurationHandler implements CrHandler {
 
         // headers
         if (match.getHeaderMatchers() != null) {
-            List<HttpRoute.HeaderMatch> headers = getHeaderMatches(match.getHeaderMatchers());
+            List<HttpRoute.HeaderMatch> headers = getHeaderMatches(match.getHeaderMatchers(), context);
             result.setHeaders(headers);
         }
 
@@ -279,7 +358,7 @@ public class RouteConfigurationHandler implements CrHandler {
         return result;
     }
 
-    List<HttpRoute.HeaderMatch> getHeaderMatches(List<HeaderMatcher> matches) {
+    List<HttpRoute.HeaderMatch> getHeaderMatches(List<HeaderMatcher> matches, ConversionContext context) {
         List<HttpRoute.HeaderMatch> headers = new ArrayList<>();
         for (HeaderMatcher headerMatcher : matches) {
             HttpRoute.HeaderMatch headerMatch = new HttpRoute.HeaderMatch();
@@ -289,24 +368,20 @@ public class RouteConfigurationHandler implements CrHandler {
                 headerMatch.setValue(headerMatcher.getExactMatch());
             }
             else if (headerMatcher.getSafeRegexMatch() != null) {
-                headerMatch.setType(HttpRoute.HeaderMatchType.RegularExpression);
-                headerMatch.setValue(headerMatcher.getSafeRegexMatch());
+                setRegex(headerMatch, headerMatcher.getSafeRegexMatch(), context);
             } else if (headerMatcher.getPrefixMatch() != null) {
-                headerMatch.setType(HttpRoute.HeaderMatchType.RegularExpression);
-                headerMatch.setValue("^" + Pattern.quote(headerMatcher.getPrefixMatch()) + ".*$");
+                setRegex(headerMatch, Re2Regex.quote(headerMatcher.getPrefixMatch()) + ".*", context);
             }
             else if (headerMatcher.getSuffixMatch() != null) {
-                headerMatch.setType(HttpRoute.HeaderMatchType.RegularExpression);
-                headerMatch.setValue(".*" + Pattern.quote(headerMatcher.getSuffixMatch()) + "$");
+                setRegex(headerMatch, ".*" + Re2Regex.quote(headerMatcher.getSuffixMatch()), context);
             }
             else if (headerMatcher.isPresentMatch()) {
-                headerMatch.setType(HttpRoute.HeaderMatchType.RegularExpression);
-                headerMatch.setValue(".*");
+                setRegex(headerMatch, ".*", context);
             }
             else
             {
                 //TODO VLLA the rest types are not supported
-                log.warn("Header match {} is unsupported", headerMatch);
+                context.diagnostics().warn("Unsupported header match for header", headerMatcher.getName());
             }
 
             if (headerMatch.getType() != null) {
@@ -316,6 +391,27 @@ public class RouteConfigurationHandler implements CrHandler {
         return headers;
     }
 
+    // Envoy matches the whole value with RE2: literal regexes become exact matches, others take their cheapest form.
+    // A regex RE2 can't compile fails the conversion: dropping the header match would widen the rule.
+    private void setRegex(HttpRoute.HeaderMatch headerMatch, String regex, ConversionContext context) {
+        Re2Regex.Analysis analysis = Re2Regex.analyze(regex);
+        if (analysis.unsupported() != null) {
+            throw new ConversionException("Header regex for '" + headerMatch.getName() + "' is not supported by RE2 ("
+                    + analysis.unsupported() + "): " + regex);
+        }
+        if (analysis.literal() != null) {
+            headerMatch.setType(HttpRoute.HeaderMatchType.Exact);
+            headerMatch.setValue(analysis.literal());
+            return;
+        }
+        headerMatch.setType(HttpRoute.HeaderMatchType.RegularExpression);
+        headerMatch.setValue(analysis.regex());
+        if (analysis.programSize() > context.regexProgramBudget()) {
+            context.diagnostics().warn("Header regex over the RE2 program size budget of " + context.regexProgramBudget(),
+                    headerMatch.getName() + ": " + analysis.regex() + " (" + analysis.programSize() + ")");
+        }
+    }
+
     HttpRoute.BackendRef toBackendRef(RouteDestination dst) {
         if (dst == null) {
             return null;
@@ -0,0 +1,144 @@
+package org.qubership.remesh.handler;
+
+import org.qubership.remesh.dto.gatewayapi.HttpRoute;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Path segment trie over the matches of one route's rules, with Gateway API {@code PathPrefix} semantics: a prefix
+ * covers its own path and every path below it, segment by segment. A match without a path is a {@code /} prefix.
+ * Regular expressions and templated paths can match anything, so they are kept aside and overlap every match.
+ */
+final class RulePathTrie {
+    private final Node root = new Node();
+    private final List<Entry> opaque = new ArrayList<>();
+
+    record Entry(int rule, HttpRoute.Match match) {
+
+        HttpRoute.PathMatchType type() {
+            return match == null || match.getPath() == null ? HttpRoute.PathMatchType.PathPrefix : match.getPath().getType();
+        }
+
+        String path() {
+            return match == null || match.getPath() == null ? "/" : match.getPath().getValue();
+        }
+    }
+
+    void add(int rule, HttpRoute.Match match) {
+        Entry entry = new Entry(rule, match);
+        List<String> segments = segments(entry);
+        if (segments == null) {
+            opaque.add(entry);
+            return;
+        }
+        Node node = root;
+        for (String segment : segments) {
+            node = node.children.computeIfAbsent(segment, s -> new Node());
+        }
+        (entry.type() == HttpRoute.PathMatchType.Exact ? node.exact : node.prefixes).add(entry);
+    }
+
+    /**
+     * Entries whose path matches every path {@code match} does, in insertion order: prefixes at or above its node
+     * and, for an exact match, identical exact paths. Opaque matches are only covered by identical ones.
+     */
+    List<Entry> covering(HttpRoute.Match match) {
+        Entry target = new Entry(-1, match);
+        List<Entry> result = new ArrayList<>();
+        List<String> segments = segments(target);
+        if (segments == null) {
+            for (Entry entry : opaque) {
+                if (entry.type() == target.type() && entry.path().equals(target.path())) {
+                    result.add(entry);
+                }
+            }
+            return result;
+        }
+        Node node = root;
+        result.addAll(node.prefixes);
+        for (String segment : segments) {
+            node = node.children.get(segment);
+            if (node == null) {
+                break;
+            }
+            result.addAll(node.prefixes);
+        }
+        if (node != null && target.type() == HttpRoute.PathMatchType.Exact) {
+            for (Entry entry : node.exact) {
+                if (entry.path().equals(target.path())) {
+                    result.add(entry);
+                }
+            }
+        }
+        result.sort((a, b) -> Integer.compare(a.rule(), b.rule()));
+        return result;
+    }
+
+    /**
+     * Visits every entry whose path may match a path {@code match} also matches.
+     */
+    void overlapping(HttpRoute.Match match, Consumer<Entry> visitor) {
+        Entry target = new Entry(-1, match);
+        List<String> segments = segments(target);
+        opaque.forEach(visitor);
+        if (segments == null) {
+            visitAll(root, visitor);
+            return;
+        }
+        Node node = root;
+        node.prefixes.forEach(visitor);
+        for (String segment : segments) {
+            node = node.children.get(segment);
+            if (node == null) {
+                return;
+            }
+            node.prefixes.forEach(visitor);
+        }
+        if (target.type() == HttpRoute.PathMatchType.Exact) {
+            for (Entry entry : node.exact) {
+                if (entry.path().equals(target.path())) {
+                    visitor.accept(entry);
+                }
+            }
+        } else {
+            node.exact.forEach(visitor);
+            for (Node child : node.children.values()) {
+                visitAll(child, visitor);
+            }
+        }
+    }
+
+    private static void visitAll(Node node, Consumer<Entry> visitor) {
+        node.prefixes.forEach(visitor);
+        node.exact.forEach(visitor);
+        for (Node child : node.children.values()) {
+            visitAll(child, visitor);
+        }
+    }
+
+    // null for matches whose paths can't be placed in the trie
+    private static List<String> segments(Entry entry) {
+        String path = entry.path();
+        if (entry.type() == HttpRoute.PathMatchType.RegularExpression || path == null || !path.startsWith("/")
+                || path.contains("{{")) {
+            return null;
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Entry> prefixes = new ArrayList<>();
+        private final List<Entry> exact = new ArrayList<>();
+    }
+}
@@ -0,0 +1,126 @@
+package org.qubership.remesh.incremental;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Content hashes of the files left by the previous run, keyed by path relative to the processed root.
+ * A file is up to date when its current hash and the converter version both match its entry.
+ */
+@Slf4j
+public class IncrementalManifest {
+    public static final String FILE_NAME = ".remesh-manifest.json";
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path location;
+    private final String version;
+    private final Map<String, Entry> entries;
+
+    private IncrementalManifest(Path root, Path location, String version, Map<String, Entry> entries) {
+        this.root = root;
+        this.location = location;
+        this.version = version;
+        this.entries = new ConcurrentHashMap<>(entries);
+    }
+
+    public static IncrementalManifest load(Path root, String version) {
+        return load(root, root, version);
+    }
+
+    // keys stay relative to root; the file itself lives in manifestDir
+    public static IncrementalManifest load(Path root, Path manifestDir, String version) {
+        Path location = manifestDir.resolve(FILE_NAME);
+        Map<String, Entry> entries = Map.of();
+        if (Files.isRegularFile(location)) {
+            try {
+                entries = JSON_MAPPER.readValue(location.toFile(), Content.class).files();
+            } catch (IOException e) {
+                log.warn("Cannot read manifest '{}', all files will be processed. Cause: {}", location, e.getMessage());
+            }
+        }
+        return new IncrementalManifest(root, location, version, entries == null ? Map.of() : entries);
+    }
+
+    public boolean isUpToDate(Path file) {
+        Entry entry = entries.get(key(file));
+        if (entry == null || !version.equals(entry.version())) {
+            return false;
+        }
+        try {
+            return entry.hash().equals(hash(file));
+        } catch (UncheckedIOException e) {
+            return false;
+        }
+    }
+
+    public void record(Path file) {
+        entries.put(key(file), new Entry(hash(file), version));
+    }
+
+    public void retainOnly(Collection<Path> files) {
+        Set<String> keys = files.stream().map(this::key).collect(Collectors.toSet());
+        entries.keySet().retainAll(keys);
+    }
+
+    public void save() throws IOException {
+        Files.createDirectories(location.getParent());
+        Path tmp = location.resolveSibling(FILE_NAME + ".tmp");
+        JSON_MAPPER.writeValue(tmp.toFile(), new Content(new TreeMap<>(entries)));
+        Files.move(tmp, location, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private String key(Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    static String hash(Path file) {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream is = Files.newInputStream(file)) {
+            int read;
+            while ((read = is.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to hash " + file, e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    record Entry(String hash, String version) {
+    }
+
+    record Content(Map<String, Entry> files) {
+    }
+}
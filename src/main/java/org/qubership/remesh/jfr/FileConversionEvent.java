@@ -0,0 +1,36 @@
+package org.qubership.remesh.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Conversion of one input file. In pipeline mode the event spans the file's way through all stages,
+ * queueing included, and is committed by the write stage.
+ */
+@Name("org.qubership.remesh.FileConversion")
+@Label("File Conversion")
+@Category("ReMesh")
+@Description("Reading, converting and writing one input file")
+@StackTrace(false)
+public class FileConversionEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Fragments")
+    public int fragments;
+
+    @Label("Resources")
+    public int resources;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,33 @@
+package org.qubership.remesh.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Preprocessing and routing of one YAML document. {@link HandlerInvocationEvent}s are nested in it on the same thread.
+ */
+@Name("org.qubership.remesh.FragmentConversion")
+@Label("Fragment Conversion")
+@Category("ReMesh")
+@Description("Preprocessing, parsing and routing one YAML document")
+@StackTrace(false)
+public class FragmentConversionEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Fragment")
+    @Description("1-based index of the document in its file")
+    public int fragment;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Resources")
+    public int resources;
+}
@@ -0,0 +1,38 @@
+package org.qubership.remesh.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code CrHandler.handle} call, with the file and fragment of the document, as in the enclosing
+ * {@link FragmentConversionEvent} on the same thread.
+ */
+@Name("org.qubership.remesh.HandlerInvocation")
+@Label("Handler Invocation")
+@Category("ReMesh")
+@Description("Parsing a Mesh document and generating resources from it")
+@StackTrace(false)
+public class HandlerInvocationEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Fragment")
+    @Description("1-based index of the document in its file, 0 when unknown")
+    public int fragment;
+
+    @Label("Sub Kind")
+    public String subKind;
+
+    @Label("Size")
+    @Description("Length of the preprocessed document")
+    @DataAmount
+    public long bytes;
+
+    @Label("Resources")
+    public int resources;
+}
@@ -0,0 +1,50 @@
+package org.qubership.remesh.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+/**
+ * A flight recording of the whole run with the JDK's {@code default} settings and every ReMesh event enabled.
+ * It is written to the destination when closed, or at JVM exit if a run (e.g. {@code --watch}) never returns.
+ */
+public final class RunRecording implements Closeable {
+    static final List<Class<? extends Event>> EVENTS = List.of(FileConversionEvent.class, FragmentConversionEvent.class,
+            HandlerInvocationEvent.class, SchemaLoadEvent.class, ValidationEvent.class);
+
+    private final Recording recording;
+
+    private RunRecording(Recording recording) {
+        this.recording = recording;
+    }
+
+    public static RunRecording start(Path destination) throws IOException {
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+        } catch (ParseException e) {
+            throw new IOException("Cannot read the default JFR configuration", e);
+        }
+        recording.setName("remesh");
+        for (Class<? extends Event> event : EVENTS) {
+            recording.enable(event).withoutStackTrace();
+        }
+        recording.setDestination(destination);
+        recording.setDumpOnExit(true);
+        recording.start();
+        return new RunRecording(recording);
+    }
+
+    @Override
+    public void close() {
+        // stop() writes the recording to its destination
+        recording.stop();
+        recording.close();
+    }
+}
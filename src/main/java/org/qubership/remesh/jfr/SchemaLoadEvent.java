@@ -0,0 +1,25 @@
+package org.qubership.remesh.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Loading and compiling a JSON schema for the interpreting validator. Happens once per schema per run.
+ */
+@Name("org.qubership.remesh.SchemaLoad")
+@Label("Schema Load")
+@Category("ReMesh")
+@Description("Reading and compiling a CRD schema for validation")
+@StackTrace(false)
+public class SchemaLoadEvent extends Event {
+    @Label("Schema")
+    public String schema;
+
+    @Label("From Snapshot")
+    @Description("Whether the schema came from the build-time snapshot instead of the CRD")
+    public boolean snapshot;
+}
@@ -0,0 +1,34 @@
+package org.qubership.remesh.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Validation of one generated resource on the validator pool.
+ */
+@Name("org.qubership.remesh.Validation")
+@Label("Validation")
+@Category("ReMesh")
+@Description("Validating one generated resource against its schema")
+@StackTrace(false)
+public class ValidationEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Fragment")
+    public int fragment;
+
+    @Label("Resource")
+    @Description("1-based index of the resource among those generated from the fragment")
+    public int resource;
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Errors")
+    public int errors;
+}
@@ -0,0 +1,37 @@
+package org.qubership.remesh.output;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+abstract class ChannelOutputFile implements OutputFile {
+    protected final FileChannel channel;
+    private final Writer writer;
+
+    ChannelOutputFile(FileChannel channel) {
+        this.channel = channel;
+        this.writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Writer writer() {
+        return writer;
+    }
+
+    @Override
+    public void transferFrom(FileChannel source, long position, long count) throws IOException {
+        writer.flush();
+        long transferred = 0;
+        while (transferred < count) {
+            long n = source.transferTo(position + transferred, count - transferred, channel);
+            if (n <= 0) {
+                throw new IOException("Unexpected end of input at offset " + (position + transferred));
+            }
+            transferred += n;
+        }
+    }
+}
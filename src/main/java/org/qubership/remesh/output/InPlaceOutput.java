@@ -0,0 +1,47 @@
+package org.qubership.remesh.output;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Moves the input to {@code <file>_old} and writes the output under the original name.
+ */
+public class InPlaceOutput implements OutputTarget {
+    public static final String BACKUP_SUFFIX = "_old";
+
+    @Override
+    public Path outputPath(Path input) {
+        return input;
+    }
+
+    @Override
+    public OutputFile open(Path input) throws IOException {
+        Path oldFile = input.resolveSibling(input.getFileName().toString() + BACKUP_SUFFIX);
+        try {
+            Files.move(input, oldFile);
+        } catch (IOException e) {
+            throw new IOException("Failed to rename original file '" + input + "'", e);
+        }
+        FileChannel channel = FileChannel.open(input,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new ChannelOutputFile(channel) {
+            @Override
+            public Path path() {
+                return input;
+            }
+
+            @Override
+            public void commit() throws IOException {
+                writer().close();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer().close();
+            }
+        };
+    }
+}
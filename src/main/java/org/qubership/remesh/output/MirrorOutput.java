@@ -0,0 +1,134 @@
+package org.qubership.remesh.output;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.SecureRandom;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mirrors the input tree under a separate root. Every output is written to a temp file in the target
+ * directory and atomically renamed over the target, so readers see either the previous output or the new one.
+ * The temp file takes the permissions of the target it replaces, or the umask defaults for a new file.
+ * With {@code fsync} every file is forced to disk before the rename and directory entries are forced once per
+ * directory in {@link #finish()}, so a crash also leaves either version. The input tree is only read.
+ */
+@Slf4j
+public class MirrorOutput implements OutputTarget {
+    private static final String TEMP_SUFFIX = ".remesh-tmp";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Path inputRoot;
+    private final Path outputRoot;
+    private final boolean fsync;
+    private final Set<Path> touchedDirectories = ConcurrentHashMap.newKeySet();
+
+    public MirrorOutput(Path inputRoot, Path outputRoot) {
+        this(inputRoot, outputRoot, false);
+    }
+
+    public MirrorOutput(Path inputRoot, Path outputRoot, boolean fsync) {
+        this.inputRoot = inputRoot.toAbsolutePath().normalize();
+        this.outputRoot = outputRoot.toAbsolutePath().normalize();
+        this.fsync = fsync;
+    }
+
+    public Path getOutputRoot() {
+        return outputRoot;
+    }
+
+    @Override
+    public Path outputPath(Path input) {
+        return outputRoot.resolve(inputRoot.relativize(input.toAbsolutePath().normalize()).toString());
+    }
+
+    @Override
+    public OutputFile open(Path input) throws IOException {
+        Path target = outputPath(input);
+        Path directory = target.getParent();
+        Files.createDirectories(directory);
+        Path tmp = directory.resolve("." + target.getFileName() + "." + Long.toUnsignedString(RANDOM.nextLong(), 36) + TEMP_SUFFIX);
+
+        FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+        try {
+            copyPermissions(target, tmp);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        return new ChannelOutputFile(channel) {
+            private boolean committed;
+
+            @Override
+            public Path path() {
+                return target;
+            }
+
+            @Override
+            public void commit() throws IOException {
+                writer().flush();
+                if (fsync) {
+                    channel.force(true);
+                }
+                writer().close();
+                move(tmp, target);
+                if (fsync) {
+                    touchedDirectories.add(directory);
+                }
+                committed = true;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (!committed) {
+                    writer().close();
+                    Files.deleteIfExists(tmp);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void finish() throws IOException {
+        for (Path directory : touchedDirectories) {
+            forceDirectory(directory);
+        }
+        touchedDirectories.clear();
+    }
+
+    // Files.createTempFile would create the file with mode 0600, which the rename would carry over to the target.
+    // A plain CREATE_NEW gets the umask defaults; a replaced target keeps the permissions it had.
+    private static void copyPermissions(Path target, Path tmp) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (view == null || !Files.exists(target)) {
+            return;
+        }
+        Files.setPosixFilePermissions(tmp, view.readAttributes().permissions());
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // not every platform can open a directory as a channel; the rename itself is still atomic there
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Cannot sync directory '{}': {}", directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.qubership.remesh.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Output of one input file. Content becomes visible on {@link #commit()}; closing without a commit
+ * discards it where the target allows.
+ */
+public interface OutputFile extends Closeable {
+    Path path();
+
+    Writer writer();
+
+    // copies bytes straight from the source channel, after anything already written to the writer
+    void transferFrom(FileChannel source, long position, long count) throws IOException;
+
+    void commit() throws IOException;
+}
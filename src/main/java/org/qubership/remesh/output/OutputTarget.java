@@ -0,0 +1,17 @@
+package org.qubership.remesh.output;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where converted documents for an input file go.
+ */
+public interface OutputTarget {
+    Path outputPath(Path input);
+
+    OutputFile open(Path input) throws IOException;
+
+    // called once after all files are written
+    default void finish() throws IOException {
+    }
+}
@@ -0,0 +1,198 @@
+package org.qubership.remesh.pipeline;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Linear chain of stages connected by bounded queues. Every stage runs on its own executor;
+ * a full downstream queue blocks the upstream workers, so a slow stage throttles everything before it.
+ * A step may return {@code null} to drop an item. When a step throws, the error handler is called
+ * and the item is passed on unchanged.
+ */
+@Slf4j
+public class StagedPipeline<T> {
+    private static final Object POISON = new Object();
+
+    private final int queueCapacity;
+    private final BiConsumer<T, RuntimeException> errorHandler;
+    private final List<Stage> stages = new ArrayList<>();
+    private boolean started;
+
+    public StagedPipeline(int queueCapacity, BiConsumer<T, RuntimeException> errorHandler) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+        this.errorHandler = errorHandler;
+    }
+
+    public StagedPipeline<T> addStage(String name, int workers, UnaryOperator<T> step) {
+        if (started) {
+            throw new IllegalStateException("Pipeline is already started");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("Stage '" + name + "' needs at least one worker");
+        }
+        Stage stage = new Stage(name, workers, step);
+        if (!stages.isEmpty()) {
+            stages.getLast().next = stage;
+        }
+        stages.add(stage);
+        return this;
+    }
+
+    public void start() {
+        if (stages.isEmpty()) {
+            throw new IllegalStateException("Pipeline has no stages");
+        }
+        started = true;
+        stages.forEach(Stage::start);
+    }
+
+    /**
+     * Blocks while the first stage queue is full.
+     */
+    public void submit(T item) throws InterruptedException {
+        if (!started) {
+            throw new IllegalStateException("Pipeline is not started");
+        }
+        stages.getFirst().put(item);
+    }
+
+    /**
+     * Signals end of input and waits until every stage has drained.
+     */
+    public void finish() throws InterruptedException {
+        stages.getFirst().poison();
+        for (Stage stage : stages) {
+            stage.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Map<String, Integer> queueDepths() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Stage stage : stages) {
+            result.put(stage.name, stage.queue.size());
+        }
+        return result;
+    }
+
+    public List<StageStats> stats() {
+        List<StageStats> result = new ArrayList<>();
+        for (Stage stage : stages) {
+            result.add(new StageStats(stage.name,
+                    stage.workers,
+                    stage.processed.get(),
+                    stage.queue.size(),
+                    stage.maxDepth.get(),
+                    queueCapacity,
+                    TimeUnit.NANOSECONDS.toMillis(stage.busyNanos.get())));
+        }
+        return result;
+    }
+
+    public record StageStats(String name,
+                             int workers,
+                             long processed,
+                             int queueDepth,
+                             int maxQueueDepth,
+                             int queueCapacity,
+                             long busyMillis) {
+    }
+
+    private final class Stage {
+        private final String name;
+        private final int workers;
+        private final UnaryOperator<T> step;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicInteger running;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicInteger maxDepth = new AtomicInteger();
+        private ExecutorService executor;
+        private Stage next;
+
+        private Stage(String name, int workers, UnaryOperator<T> step) {
+            this.name = name;
+            this.workers = workers;
+            this.step = step;
+            this.running = new AtomicInteger(workers);
+        }
+
+        private void start() {
+            executor = Executors.newFixedThreadPool(workers, threadFactory(name));
+            for (int i = 0; i < workers; i++) {
+                executor.execute(this::work);
+            }
+            executor.shutdown();
+        }
+
+        private void put(Object item) throws InterruptedException {
+            queue.put(item);
+            maxDepth.accumulateAndGet(queue.size(), Math::max);
+        }
+
+        private void poison() throws InterruptedException {
+            for (int i = 0; i < workers; i++) {
+                queue.put(POISON);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void work() {
+            try {
+                while (true) {
+                    Object item = queue.take();
+                    if (item == POISON) {
+                        if (running.decrementAndGet() == 0 && next != null) {
+                            next.poison();
+                        }
+                        return;
+                    }
+
+                    T value = (T) item;
+                    long start = System.nanoTime();
+                    T result;
+                    try {
+                        result = step.apply(value);
+                    } catch (RuntimeException e) {
+                        errorHandler.accept(value, e);
+                        result = value;
+                    }
+                    busyNanos.addAndGet(System.nanoTime() - start);
+                    processed.incrementAndGet();
+
+                    if (result != null && next != null) {
+                        next.put(result);
+                    }
+                }
+            } catch (InterruptedException e) {
+                log.warn("Pipeline stage '{}' interrupted", name);
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static ThreadFactory threadFactory(String stageName) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "remesh-" + stageName + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
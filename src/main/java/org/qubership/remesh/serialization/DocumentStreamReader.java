@@ -0,0 +1,97 @@
+package org.qubership.remesh.serialization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reads a multi-document YAML stream one document at a time, splitting on {@code ---} lines and flagging
+ * Mesh candidates the same way {@link FragmentIndex} does for a mapped file. Only the current document is
+ * held, so memory is bounded by the largest document rather than the stream.
+ */
+public final class DocumentStreamReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private byte[] document = new byte[BUFFER_SIZE];
+    private int length;
+
+    /**
+     * A document without its delimiter line. {@code content} is only valid until the next call to {@link #next()}.
+     */
+    public record Document(ByteBuffer content, boolean meshCandidate) {
+    }
+
+    public DocumentStreamReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * @return the next non-blank document, or {@code null} at the end of the stream
+     */
+    public Document next() throws IOException {
+        length = 0;
+        while (true) {
+            int lineStart = length;
+            if (!appendLine()) {
+                return length > 0 ? document(length) : null;
+            }
+            int lineEnd = document[length - 1] == '\n' ? length - 1 : length;
+            ByteBuffer view = ByteBuffer.wrap(document, 0, length);
+            if (FragmentIndex.isDelimiter(view, lineStart, lineEnd)) {
+                Document complete = document(lineStart);
+                if (complete != null) {
+                    return complete;
+                }
+                length = 0;
+            }
+        }
+    }
+
+    private Document document(int end) {
+        ByteBuffer content = ByteBuffer.wrap(document, 0, end);
+        if (FragmentIndex.isBlank(content, 0, end)) {
+            return null;
+        }
+        return new Document(content.slice(), FragmentIndex.hasMeshKind(content, 0, end));
+    }
+
+    // Appends the next line, including its '\n', to the current document. Returns false at the end of the stream.
+    private boolean appendLine() throws IOException {
+        boolean appended = false;
+        while (true) {
+            if (position == limit) {
+                limit = in.read(buffer);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return appended;
+                }
+            }
+            int end = position;
+            while (end < limit && buffer[end] != '\n') {
+                end++;
+            }
+            boolean lineComplete = end < limit;
+            int count = (lineComplete ? end + 1 : end) - position;
+            ensureCapacity(length + count);
+            System.arraycopy(buffer, position, document, length, count);
+            length += count;
+            position += count;
+            appended = true;
+            if (lineComplete) {
+                return true;
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > document.length) {
+            document = Arrays.copyOf(document, Math.max(capacity, document.length * 2));
+        }
+    }
+}
@@ -21,23 +21,46 @@ public class ExtendedIntegerSerializer extends JsonSerializer<String> {
         if (isHelmPlaceholder(value)) {
             gen.writeRawValue(value);
         } else if (isInteger(value)) {
-            gen.writeNumber(value);
+            gen.writeNumber(Integer.parseInt(value));
         } else {
             gen.writeString(value);
         }
     }
 
-    boolean isHelmPlaceholder(String s) {
+    public boolean isHelmPlaceholder(String s) {
         String trim = s.trim();
         return trim.startsWith("{{") && trim.endsWith("}}");
     }
 
-    boolean isInteger(String s) {
-        try {
-            Integer.parseInt(s);
-            return true;
-        } catch (NumberFormatException ex) {
+    // accepts exactly what Integer.parseInt accepts, without throwing for everything else
+    public boolean isInteger(String s) {
+        int length = s.length();
+        if (length == 0) {
             return false;
         }
+
+        int i = 0;
+        char first = s.charAt(0);
+        boolean negative = first == '-';
+        if (negative || first == '+') {
+            if (length == 1) {
+                return false;
+            }
+            i = 1;
+        }
+
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        for (; i < length; i++) {
+            int digit = Character.digit(s.charAt(i), 10);
+            if (digit < 0) {
+                return false;
+            }
+            value = value * 10 + digit;
+            if (value > limit) {
+                return false;
+            }
+        }
+        return true;
     }
 }
@@ -0,0 +1,120 @@
+package org.qubership.remesh.serialization;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Byte offsets of the documents in a multi-document YAML buffer, found by scanning for {@code ---} lines
+ * the same way {@code TransformerService.FRAGMENT_DELIMITER} splits text. Blank documents are left out.
+ * Each fragment is flagged as a Mesh candidate when it has a top-level {@code kind: Mesh} line, so
+ * everything else can be copied without decoding.
+ */
+public final class FragmentIndex {
+    private static final byte[] KIND_KEY = "kind:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MESH_KIND = "Mesh".getBytes(StandardCharsets.US_ASCII);
+
+    public record Fragment(int offset, int length, boolean meshCandidate) {
+    }
+
+    public static List<Fragment> build(ByteBuffer buffer) {
+        List<Fragment> fragments = new ArrayList<>();
+        int limit = buffer.limit();
+        int fragmentStart = 0;
+        int lineStart = 0;
+
+        while (lineStart < limit) {
+            int lineEnd = lineEnd(buffer, lineStart, limit);
+            int next = lineEnd < limit ? lineEnd + 1 : limit;
+            if (isDelimiter(buffer, lineStart, lineEnd)) {
+                addFragment(buffer, fragments, fragmentStart, lineStart);
+                fragmentStart = next;
+            }
+            lineStart = next;
+        }
+        addFragment(buffer, fragments, fragmentStart, limit);
+        return fragments;
+    }
+
+    private static void addFragment(ByteBuffer buffer, List<Fragment> fragments, int start, int end) {
+        if (isBlank(buffer, start, end)) {
+            return;
+        }
+        fragments.add(new Fragment(start, end - start, hasMeshKind(buffer, start, end)));
+    }
+
+    private static int lineEnd(ByteBuffer buffer, int from, int limit) {
+        int i = from;
+        while (i < limit && buffer.get(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    static boolean isDelimiter(ByteBuffer buffer, int start, int end) {
+        if (end - start < 3 || buffer.get(start) != '-' || buffer.get(start + 1) != '-' || buffer.get(start + 2) != '-') {
+            return false;
+        }
+        for (int i = start + 3; i < end; i++) {
+            if (!isSpace(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (!isSpace(b) && b != '\n') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean hasMeshKind(ByteBuffer buffer, int start, int end) {
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = lineEnd(buffer, lineStart, end);
+            if (startsWith(buffer, lineStart, lineEnd, KIND_KEY)) {
+                return isMeshValue(buffer, lineStart + KIND_KEY.length, lineEnd);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return false;
+    }
+
+    private static boolean isMeshValue(ByteBuffer buffer, int from, int to) {
+        while (from < to && isSpace(buffer.get(from))) {
+            from++;
+        }
+        while (to > from && isSpace(buffer.get(to - 1))) {
+            to--;
+        }
+        if (to - from >= 2 && (buffer.get(from) == '"' || buffer.get(from) == '\'') && buffer.get(to - 1) == buffer.get(from)) {
+            from++;
+            to--;
+        }
+        return to - from == MESH_KIND.length && startsWith(buffer, from, to, MESH_KIND);
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int from, int to, byte[] prefix) {
+        if (to - from < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(from + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private FragmentIndex() {}
+}
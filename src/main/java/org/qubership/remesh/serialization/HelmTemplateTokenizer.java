@@ -0,0 +1,132 @@
+package org.qubership.remesh.serialization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Single pass over a YAML fragment that swaps every {@code {{ ... }}} span for a plain-scalar placeholder.
+ * Lines holding nothing but template spans (control flow, includes) are blanked, the way they would be
+ * ignored as comments. Spans inside quoted scalars are unescaped so the restored value matches what YAML
+ * would have produced for the quoted text. Placeholders carry a random nonce, replaced by a fresh one for a
+ * fragment that already contains it, so text in the input is never mistaken for a placeholder.
+ */
+public final class HelmTemplateTokenizer {
+    static final String PLACEHOLDER_SUFFIX = "__";
+    private static final String NONCE = nonce();
+
+    public static TemplatedYaml tokenize(String yaml) {
+        int open = yaml.indexOf("{{");
+        if (open < 0) {
+            return new TemplatedYaml(yaml, List.of());
+        }
+
+        int length = yaml.length();
+        StringBuilder out = new StringBuilder(length);
+        List<String> templates = new ArrayList<>();
+        String prefix = placeholderPrefix(yaml);
+
+        out.append(yaml, 0, lineStart(yaml, open));
+        int lineStartInOut = out.length();
+        boolean lineHasContent = false;
+        boolean lineHasTemplate = false;
+        char quote = 0;
+        char previous = 0;
+
+        int i = lineStart(yaml, open);
+        while (i < length) {
+            char c = yaml.charAt(i);
+
+            if (c == '{' && i + 1 < length && yaml.charAt(i + 1) == '{') {
+                int close = yaml.indexOf("}}", i + 2);
+                if (close < 0) {
+                    out.append(yaml, i, length);
+                    break;
+                }
+                int end = close + 2;
+                String span = yaml.substring(i, end);
+                templates.add(quote == 0 ? span : unescape(span, quote));
+                out.append(prefix).append(templates.size() - 1).append(PLACEHOLDER_SUFFIX);
+                lineHasTemplate = true;
+                previous = '}';
+                i = end;
+                continue;
+            }
+
+            if (c == '\n') {
+                if (lineHasTemplate && !lineHasContent) {
+                    out.setLength(lineStartInOut);
+                }
+                out.append('\n');
+                lineStartInOut = out.length();
+                lineHasContent = false;
+                lineHasTemplate = false;
+                quote = 0;
+                previous = 0;
+                i++;
+                continue;
+            }
+
+            if (quote == '\'' && c == '\'' && i + 1 < length && yaml.charAt(i + 1) == '\'') {
+                out.append("''");
+                i += 2;
+                continue;
+            }
+            if (c == '\'' || c == '"') {
+                if (quote == 0) {
+                    if (opensQuote(yaml, i, previous)) {
+                        quote = c;
+                    }
+                } else if (quote == c && !(c == '"' && i > 0 && yaml.charAt(i - 1) == '\\')) {
+                    quote = 0;
+                }
+            }
+            if (!Character.isWhitespace(c)) {
+                lineHasContent = true;
+                previous = c;
+            }
+            out.append(c);
+            i++;
+        }
+
+        if (lineHasTemplate && !lineHasContent) {
+            out.setLength(lineStartInOut);
+        }
+
+        return new TemplatedYaml(out.toString(), templates, prefix);
+    }
+
+    // A quote only starts a quoted scalar where a scalar can start: first on the line, after a flow indicator,
+    // or after a "key:", "-" or "?" indicator and whitespace. Elsewhere, as in "it's", it is part of a plain scalar.
+    private static boolean opensQuote(String yaml, int index, char previous) {
+        if (previous == 0 || previous == '[' || previous == '{' || previous == ',') {
+            return true;
+        }
+        return (previous == ':' || previous == '-' || previous == '?') && Character.isWhitespace(yaml.charAt(index - 1));
+    }
+
+    private static String placeholderPrefix(String yaml) {
+        String prefix = "__remesh_" + NONCE + "_";
+        while (yaml.contains(prefix)) {
+            prefix = "__remesh_" + nonce() + "_";
+        }
+        return prefix;
+    }
+
+    private static String nonce() {
+        return Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    }
+
+    private static int lineStart(String yaml, int index) {
+        return yaml.lastIndexOf('\n', index) + 1;
+    }
+
+    private static String unescape(String span, char quote) {
+        if (quote == '\'') {
+            return span.replace("''", "'");
+        }
+        return span.replace("\\\"", "\"").replace("\\\\", "\\");
+    }
+
+    private HelmTemplateTokenizer() {}
+}
@@ -0,0 +1,192 @@
+package org.qubership.remesh.serialization;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.qubership.remesh.serialization.HelmTemplateTokenizer.PLACEHOLDER_SUFFIX;
+
+/**
+ * YAML text with Helm templates swapped for placeholders, plus the original spans to put back. A placeholder is
+ * {@code placeholderPrefix}, the index of its template and {@link HelmTemplateTokenizer#PLACEHOLDER_SUFFIX}.
+ */
+public record TemplatedYaml(String text, List<String> templates, String placeholderPrefix) {
+
+    public TemplatedYaml {
+        if (!templates.isEmpty() && placeholderPrefix == null) {
+            throw new IllegalArgumentException("Templates need a placeholder prefix");
+        }
+    }
+
+    /**
+     * YAML without templates.
+     */
+    public TemplatedYaml(String text, List<String> templates) {
+        this(text, templates, null);
+    }
+
+    /**
+     * YAML that holds no Helm templates, such as rendered manifests, parsed exactly as given: braces in its values
+     * are content, and no line is blanked or placeholder restored.
+     */
+    public static TemplatedYaml rendered(String text) {
+        return new TemplatedYaml(text, List.of(), null);
+    }
+
+    public boolean hasTemplates() {
+        return !templates.isEmpty();
+    }
+
+    public String restore(String value) {
+        if (value == null || !hasTemplates()) {
+            return value;
+        }
+        int start = value.indexOf(placeholderPrefix);
+        if (start < 0) {
+            return value;
+        }
+
+        StringBuilder sb = new StringBuilder(value.length() + 32);
+        int from = 0;
+        while (start >= 0) {
+            int digitsStart = start + placeholderPrefix.length();
+            int digitsEnd = digitsStart;
+            while (digitsEnd < value.length() && Character.isDigit(value.charAt(digitsEnd))) {
+                digitsEnd++;
+            }
+            int index = digitsEnd == digitsStart || digitsEnd - digitsStart > 9 || !value.startsWith(PLACEHOLDER_SUFFIX, digitsEnd)
+                    ? -1 : Integer.parseInt(value, digitsStart, digitsEnd, 10);
+            if (index < 0 || index >= templates.size()) {
+                sb.append(value, from, digitsStart);
+                from = digitsStart;
+            } else {
+                sb.append(value, from, start).append(templates.get(index));
+                from = digitsEnd + PLACEHOLDER_SUFFIX.length();
+            }
+            start = value.indexOf(placeholderPrefix, from);
+        }
+        sb.append(value, from, value.length());
+        return sb.toString();
+    }
+
+    /**
+     * Parser over the preprocessed text that puts templates back into text values and field names as they are read,
+     * so documents can be bound without an intermediate tree.
+     */
+    public JsonParser createParser(ObjectMapper mapper) throws IOException {
+        JsonParser parser = mapper.createParser(text);
+        return hasTemplates() ? new RestoringParser(parser) : parser;
+    }
+
+    /**
+     * Puts templates back into text values and field names, in place.
+     */
+    public JsonNode restore(JsonNode node) {
+        if (node == null || !hasTemplates()) {
+            return node;
+        }
+        if (node.isTextual()) {
+            String restored = restore(node.textValue());
+            return restored.equals(node.textValue()) ? node : TextNode.valueOf(restored);
+        }
+        if (node instanceof ArrayNode array) {
+            for (int i = 0; i < array.size(); i++) {
+                JsonNode element = array.get(i);
+                JsonNode restored = restore(element);
+                if (restored != element) {
+                    array.set(i, restored);
+                }
+            }
+        } else if (node instanceof ObjectNode object) {
+            restoreFields(object);
+        }
+        return node;
+    }
+
+    private void restoreFields(ObjectNode object) {
+        boolean renamed = false;
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getKey().contains(placeholderPrefix)) {
+                renamed = true;
+            }
+            JsonNode restored = restore(field.getValue());
+            if (restored != field.getValue()) {
+                field.setValue(restored);
+            }
+        }
+
+        if (renamed) {
+            List<Map.Entry<String, JsonNode>> entries = new ArrayList<>();
+            object.fields().forEachRemaining(entry -> entries.add(Map.entry(entry.getKey(), entry.getValue())));
+            object.removeAll();
+            for (Map.Entry<String, JsonNode> entry : entries) {
+                object.set(restore(entry.getKey()), entry.getValue());
+            }
+        }
+    }
+
+    private final class RestoringParser extends JsonParserDelegate {
+        private RestoringParser(JsonParser delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public String getText() throws IOException {
+            return restore(delegate.getText());
+        }
+
+        @Override
+        public String getValueAsString() throws IOException {
+            return restore(delegate.getValueAsString());
+        }
+
+        @Override
+        public String getValueAsString(String defaultValue) throws IOException {
+            return restore(delegate.getValueAsString(defaultValue));
+        }
+
+        @Override
+        public String currentName() throws IOException {
+            return restore(delegate.currentName());
+        }
+
+        // still called by older Jackson code paths, and the delegate would return the name unrestored
+        @Deprecated
+        @Override
+        public String getCurrentName() throws IOException {
+            return currentName();
+        }
+
+        @Override
+        public boolean hasTextCharacters() {
+            return false;
+        }
+
+        @Override
+        public char[] getTextCharacters() throws IOException {
+            return getText().toCharArray();
+        }
+
+        @Override
+        public int getTextOffset() {
+            return 0;
+        }
+
+        @Override
+        public int getTextLength() throws IOException {
+            return getText().length();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package org.qubership.remesh.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.qubership.remesh.ConversionResult;
+import org.qubership.remesh.TransformOptions;
+import org.qubership.remesh.TransformResult;
+import org.qubership.remesh.TransformerService;
+import org.qubership.remesh.handler.ConversionException;
+import org.qubership.remesh.validation.ValidationReport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves conversions from one warm {@link TransformerService} over HTTP. Requests are handled concurrently on
+ * a fixed pool and timed per endpoint; the timings are exposed on {@code /metrics}.
+ */
+@Slf4j
+public class ConversionServer implements Closeable {
+    private static final String JSON = "application/json";
+    private static final String YAML = "application/yaml";
+    private static final String TEXT = "text/plain; charset=utf-8";
+
+    private final TransformerService transformerService;
+    private final ObjectMapper json = new ObjectMapper();
+    private final RequestMetrics metrics = new RequestMetrics();
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    public ConversionServer(TransformerService transformerService, InetSocketAddress address, int threads) throws IOException {
+        this.transformerService = transformerService;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "remesh-serve-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/convert", exchange -> handle(exchange, "POST", this::convert));
+        server.createContext("/transform", exchange -> handle(exchange, "POST", this::transform));
+        server.createContext("/metrics", exchange -> handle(exchange, "GET", e -> text(200, RequestMetrics.CONTENT_TYPE, metrics.render())));
+        server.createContext("/health", exchange -> handle(exchange, "GET", e -> text(200, TEXT, "ok\n")));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Converts the YAML request body. Answers with the generated documents as YAML when the client accepts
+     * {@code application/yaml}, and with a {@link ConvertResponse} otherwise.
+     */
+    private Response convert(HttpExchange exchange) throws IOException {
+        Map<String, String> query = query(exchange);
+        String content = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Path name = Path.of(query.getOrDefault("name", "request.yaml"));
+        ConversionResult result;
+        try {
+            result = transformerService.convert(content, name, Boolean.parseBoolean(query.get("validate")));
+        } catch (ConversionException e) {
+            return text(422, TEXT, e.getMessage() + "\n");
+        }
+
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        if (accept != null && accept.contains(YAML)) {
+            exchange.getResponseHeaders().add("X-Remesh-Invalid-Resources", String.valueOf(result.issues().size()));
+            return text(200, YAML, result.output());
+        }
+        return json(new ConvertResponse(result.output(), result.fragments(), result.resources(), issues(result.issues())));
+    }
+
+    /**
+     * Runs a directory transform on the server's file system with the options given as query parameters, and
+     * answers with the output of every file converted by the run. Output always goes to a separate {@code out}
+     * dir: converting in place over HTTP would let any caller rewrite a server directory and leave backups in it.
+     */
+    private Response transform(HttpExchange exchange) throws IOException {
+        Map<String, String> query = query(exchange);
+        String dirParam = query.get("dir");
+        if (dirParam == null || !Files.isDirectory(Path.of(dirParam))) {
+            return text(400, TEXT, "Not a directory: " + dirParam + "\n");
+        }
+        Path dir = Path.of(dirParam).toAbsolutePath().normalize();
+        String outParam = query.get("out");
+        if (outParam == null || outParam.isEmpty()) {
+            return text(400, TEXT, "An out dir is required, converting in place is not available over HTTP\n");
+        }
+        Path outDir = Path.of(outParam).toAbsolutePath().normalize();
+        if (outDir.equals(dir)) {
+            return text(400, TEXT, "Output dir must differ from the input dir: " + outDir + "\n");
+        }
+
+        TransformOptions options = new TransformOptions();
+        options.setValidate(Boolean.parseBoolean(query.get("validate")));
+        options.setIncremental(Boolean.parseBoolean(query.get("incremental")));
+        options.setPassthrough(Boolean.parseBoolean(query.get("passthrough")));
+        options.setOutDir(outDir);
+
+        TransformResult result = transformerService.transform(dir, options);
+        List<FileOutput> outputs = new ArrayList<>(result.convertedFiles().size());
+        for (Path file : result.convertedFiles()) {
+            Path relative = dir.relativize(file.toAbsolutePath().normalize());
+            outputs.add(new FileOutput(relative.toString(), Files.readString(outDir.resolve(relative.toString()), StandardCharsets.UTF_8)));
+        }
+        return json(new TransformResponse(result.files(), result.failedFiles(), result.fragments(), result.resources(),
+                issues(result.issues()), outputs));
+    }
+
+    private void handle(HttpExchange exchange, String method, Endpoint endpoint) throws IOException {
+        long start = System.nanoTime();
+        int status = 500;
+        try (exchange) {
+            Response response;
+            if (!method.equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().add("Allow", method);
+                response = text(405, TEXT, "Method not allowed\n");
+            } else {
+                try {
+                    response = endpoint.handle(exchange);
+                } catch (Exception e) {
+                    log.error("Request {} {} failed", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+                    response = text(500, TEXT, e + "\n");
+                }
+            }
+            status = response.status();
+            exchange.getResponseHeaders().add("Content-Type", response.contentType());
+            exchange.sendResponseHeaders(status, response.body().length == 0 ? -1 : response.body().length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response.body());
+            }
+        } finally {
+            metrics.record(exchange.getHttpContext().getPath(), status, System.nanoTime() - start);
+        }
+    }
+
+    private Response json(Object body) throws IOException {
+        return new Response(200, JSON, json.writeValueAsBytes(body));
+    }
+
+    private static Response text(int status, String contentType, String body) {
+        return new Response(status, contentType, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<IssueView> issues(List<ValidationReport.Issue> issues) {
+        return issues.stream()
+                .map(issue -> new IssueView(String.valueOf(issue.file()), issue.fragment(), issue.index(), issue.kind(), issue.errors()))
+                .toList();
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "true" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+
+    private record Response(int status, String contentType, byte[] body) {
+    }
+
+    public record IssueView(String file, int fragment, int index, String kind, List<String> errors) {
+    }
+
+    public record ConvertResponse(String output, int fragments, int resources, List<IssueView> issues) {
+    }
+
+    public record FileOutput(String file, String output) {
+    }
+
+    public record TransformResponse(int files, int failedFiles, int fragments, int resources, List<IssueView> issues,
+                                    List<FileOutput> outputs) {
+    }
+}
@@ -0,0 +1,44 @@
+package org.qubership.remesh.server;
+
+import org.qubership.remesh.stats.LatencyHistogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint request latency histograms and error counts, rendered in the Prometheus text format.
+ */
+class RequestMetrics {
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] BUCKETS = {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    void record(String endpoint, int status, long nanos) {
+        Endpoint metrics = endpoints.computeIfAbsent(endpoint, e -> new Endpoint());
+        metrics.duration.record(nanos);
+        if (status >= 400) {
+            metrics.errors.increment();
+        }
+    }
+
+    String render() {
+        StringBuilder text = new StringBuilder();
+        text.append("# HELP remesh_request_duration_seconds Time spent handling a request.\n");
+        text.append("# TYPE remesh_request_duration_seconds histogram\n");
+        endpoints.forEach((endpoint, metrics) ->
+                metrics.duration.appendSamples(text, "remesh_request_duration_seconds", "endpoint=\"" + endpoint + "\""));
+        text.append("# HELP remesh_request_errors_total Requests answered with a 4xx or 5xx status.\n");
+        text.append("# TYPE remesh_request_errors_total counter\n");
+        endpoints.forEach((endpoint, metrics) -> text.append("remesh_request_errors_total{endpoint=\"").append(endpoint)
+                .append("\"} ").append(metrics.errors.sum()).append('\n'));
+        return text.toString();
+    }
+
+    private static final class Endpoint {
+        private final LatencyHistogram duration = new LatencyHistogram(BUCKETS);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,76 @@
+package org.qubership.remesh.server;
+
+import lombok.extern.slf4j.Slf4j;
+import org.qubership.remesh.ConversionResult;
+import org.qubership.remesh.TransformerService;
+import picocli.CommandLine;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+@Slf4j
+@CommandLine.Command(name = "serve", description = "Keeps the converter warm and serves conversions over HTTP")
+public class ServeCli implements Callable<Integer> {
+    private static final String WARM_UP = """
+            apiVersion: core.netcracker.com/v1
+            kind: Mesh
+            subKind: RouteConfiguration
+            metadata:
+              name: {{ .Values.SERVICE_NAME }}-warm-up
+              namespace: "{{ .Values.NAMESPACE }}"
+            spec:
+              gateways: ["warm-up-gateway"]
+              virtualServices:
+                - name: warm-up
+                  hosts: ["*"]
+                  routeConfiguration:
+                    routes:
+                      - destination:
+                          cluster: warm-up
+                          endpoint: http://warm-up:8080
+                        rules:
+                          - match:
+                              prefix: /warm-up
+                              headerMatchers:
+                                - name: Authorization
+                                  presentMatch: true
+            """;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"--host"}, description = "Address to listen on", defaultValue = "127.0.0.1")
+    private String host;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"-p", "--port"}, description = "Port to listen on", defaultValue = "8787")
+    private int port;
+
+    @SuppressWarnings("unused")
+    @CommandLine.Option(names = {"-t", "--threads"}, description = "Number of request handler threads", defaultValue = "4")
+    private int threads;
+
+    @Override
+    public Integer call() throws Exception {
+        if (threads < 1) {
+            log.error("Number of threads must be positive: {}", threads);
+            return 1;
+        }
+
+        TransformerService transformerService = new TransformerService();
+        ConversionResult warmUp = transformerService.convert(WARM_UP, Path.of("warm-up.yaml"), true);
+        log.info("Warmed up ({} resources, {} validation issues)", warmUp.resources(), warmUp.issues().size());
+
+        ConversionServer server = new ConversionServer(transformerService, new InetSocketAddress(host, port), threads);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            stopped.countDown();
+        }, "remesh-serve-shutdown"));
+        server.start();
+        log.info("Listening on http://{}:{}", server.getAddress().getHostString(), server.getAddress().getPort());
+
+        stopped.await();
+        return 0;
+    }
+}
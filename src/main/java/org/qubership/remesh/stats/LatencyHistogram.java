@@ -0,0 +1,85 @@
+package org.qubership.remesh.stats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket latency histogram on {@link LongAdder}s, cheap enough to record from every worker thread.
+ * Bucket counts are kept individually and only made cumulative when read.
+ */
+public final class LatencyHistogram {
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double[] bounds;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param bounds ascending upper bounds in seconds; the {@code +Inf} bucket is implicit
+     */
+    public LatencyHistogram(double... bounds) {
+        this.bounds = bounds.clone();
+        this.buckets = new LongAdder[bounds.length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        double seconds = nanos / NANOS_PER_SECOND;
+        for (int i = 0; i < bounds.length; i++) {
+            if (seconds <= bounds[i]) {
+                buckets[i].increment();
+                break;
+            }
+        }
+        count.increment();
+        sumNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public double[] bounds() {
+        return bounds.clone();
+    }
+
+    public long[] cumulativeCounts() {
+        long[] counts = new long[bounds.length];
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += buckets[i].sum();
+            counts[i] = cumulative;
+        }
+        return counts;
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double sumSeconds() {
+        return sumNanos.sum() / NANOS_PER_SECOND;
+    }
+
+    public double maxSeconds() {
+        return maxNanos.get() / NANOS_PER_SECOND;
+    }
+
+    /**
+     * Appends the {@code _bucket}, {@code _sum} and {@code _count} samples of {@code name}, which are the same
+     * in the Prometheus and OpenMetrics text formats. {@code labels} is a rendered label list without braces.
+     */
+    public void appendSamples(StringBuilder text, String name, String labels) {
+        long[] counts = cumulativeCounts();
+        for (int i = 0; i < bounds.length; i++) {
+            text.append(name).append("_bucket{").append(labels).append(",le=\"").append(bounds[i]).append("\"} ")
+                    .append(counts[i]).append('\n');
+        }
+        long total = count();
+        text.append(name).append("_bucket{").append(labels).append(",le=\"+Inf\"} ").append(total).append('\n');
+        text.append(name).append("_sum{").append(labels).append("} ").append(sumSeconds()).append('\n');
+        text.append(name).append("_count{").append(labels).append("} ").append(total).append('\n');
+    }
+}
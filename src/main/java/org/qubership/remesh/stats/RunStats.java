@@ -0,0 +1,141 @@
+package org.qubership.remesh.stats;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Stage latencies, counts and the slowest files and fragments of one run, safe to record from any worker.
+ * {@link #DISABLED} ignores everything, so call sites need no checks when stats were not requested.
+ */
+public class RunStats {
+    public static final RunStats DISABLED = new RunStats(false, 0);
+
+    public static final String READ = "read";
+    public static final String SPLIT = "split";
+    public static final String PREPROCESS = "preprocess";
+    public static final String ROUTE = "route";
+    public static final String HANDLE = "handle:";
+    public static final String VALIDATE = "validate";
+    public static final String SERIALIZE = "serialize";
+    public static final String WRITE = "write";
+
+    private static final double[] BUCKETS = {0.00001, 0.00005, 0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5};
+
+    private final boolean enabled;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, LatencyHistogram> stages = new ConcurrentSkipListMap<>();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder fragments = new LongAdder();
+    private final LongAdder resources = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final Slowest<StatsReport.SlowFile> slowestFiles;
+    private final Slowest<StatsReport.SlowFragment> slowestFragments;
+
+    public RunStats(int top) {
+        this(true, top);
+    }
+
+    private RunStats(boolean enabled, int top) {
+        this.enabled = enabled;
+        this.slowestFiles = new Slowest<>(top);
+        this.slowestFragments = new Slowest<>(top);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return a start time for {@link #record(String, long)}
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time since {@code start} for {@code stage} and returns it.
+     */
+    public long record(String stage, long start) {
+        if (!enabled) {
+            return 0L;
+        }
+        long nanos = System.nanoTime() - start;
+        stages.computeIfAbsent(stage, s -> new LatencyHistogram(BUCKETS)).record(nanos);
+        return nanos;
+    }
+
+    public void recordFile(Path file, long size, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        files.increment();
+        bytes.add(size);
+        slowestFiles.offer(nanos, () -> new StatsReport.SlowFile(file.toString(), size, seconds(nanos)));
+    }
+
+    public void recordFragment(Path file, int fragment, int written, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        fragments.increment();
+        resources.add(written);
+        slowestFragments.offer(nanos, () -> new StatsReport.SlowFragment(file.toString(), fragment, seconds(nanos)));
+    }
+
+    public StatsReport report() {
+        double wall = seconds(System.nanoTime() - startNanos);
+        List<StatsReport.Stage> stageReports = new ArrayList<>();
+        stages.forEach((name, histogram) -> stageReports.add(StatsReport.Stage.of(name, histogram)));
+        return new StatsReport(wall, files.sum(), fragments.sum(), resources.sum(), bytes.sum(),
+                rate(files.sum(), wall), rate(fragments.sum(), wall), rate(bytes.sum(), wall),
+                stageReports, slowestFiles.sorted(), slowestFragments.sorted());
+    }
+
+    private static double rate(long count, double seconds) {
+        return seconds > 0 ? count / seconds : 0;
+    }
+
+    static double seconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    // Keeps the n largest offers in a min-heap; entries are only built when they make it in.
+    private static final class Slowest<T> {
+        private record Entry<T>(long nanos, T value) {
+        }
+
+        private final int capacity;
+        private final PriorityQueue<Entry<T>> heap = new PriorityQueue<>(Comparator.comparingLong(Entry::nanos));
+
+        private Slowest(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void offer(long nanos, Supplier<T> value) {
+            if (capacity <= 0) {
+                return;
+            }
+            if (heap.size() < capacity) {
+                heap.add(new Entry<>(nanos, value.get()));
+            } else if (heap.peek().nanos() < nanos) {
+                heap.poll();
+                heap.add(new Entry<>(nanos, value.get()));
+            }
+        }
+
+        synchronized List<T> sorted() {
+            return heap.stream()
+                    .sorted(Comparator.comparingLong((Entry<T> entry) -> entry.nanos()).reversed())
+                    .map(Entry::value)
+                    .toList();
+        }
+    }
+}
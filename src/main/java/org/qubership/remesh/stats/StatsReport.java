@@ -0,0 +1,79 @@
+package org.qubership.remesh.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Snapshot of {@link RunStats}, written as JSON by Jackson or as an OpenMetrics textfile by {@link #toOpenMetrics()}.
+ */
+public record StatsReport(double wallSeconds, long files, long fragments, long resources, long bytesRead,
+                          double filesPerSecond, double fragmentsPerSecond, double bytesPerSecond,
+                          List<Stage> stages, List<SlowFile> slowestFiles, List<SlowFragment> slowestFragments) {
+
+    public record Stage(String stage, long count, double totalSeconds, double meanSeconds, double maxSeconds,
+                        List<Bucket> buckets) {
+
+        static Stage of(String name, LatencyHistogram histogram) {
+            double[] bounds = histogram.bounds();
+            long[] counts = histogram.cumulativeCounts();
+            List<Bucket> buckets = new ArrayList<>(bounds.length + 1);
+            for (int i = 0; i < bounds.length; i++) {
+                buckets.add(new Bucket(String.valueOf(bounds[i]), counts[i]));
+            }
+            long count = histogram.count();
+            buckets.add(new Bucket("+Inf", count));
+            double total = histogram.sumSeconds();
+            return new Stage(name, count, total, count > 0 ? total / count : 0, histogram.maxSeconds(), buckets);
+        }
+    }
+
+    /**
+     * Cumulative count of observations at or below {@code le} seconds.
+     */
+    public record Bucket(String le, long count) {
+    }
+
+    public record SlowFile(String file, long bytes, double seconds) {
+    }
+
+    public record SlowFragment(String file, int fragment, double seconds) {
+    }
+
+    public String toOpenMetrics() {
+        StringBuilder text = new StringBuilder();
+        text.append("# TYPE remesh_stage_duration_seconds histogram\n");
+        text.append("# UNIT remesh_stage_duration_seconds seconds\n");
+        text.append("# HELP remesh_stage_duration_seconds Time spent per item in each conversion stage.\n");
+        for (Stage stage : stages) {
+            String labels = "stage=\"" + stage.stage() + "\"";
+            for (Bucket bucket : stage.buckets()) {
+                text.append("remesh_stage_duration_seconds_bucket{").append(labels).append(",le=\"").append(bucket.le())
+                        .append("\"} ").append(bucket.count()).append('\n');
+            }
+            text.append("remesh_stage_duration_seconds_sum{").append(labels).append("} ").append(stage.totalSeconds()).append('\n');
+            text.append("remesh_stage_duration_seconds_count{").append(labels).append("} ").append(stage.count()).append('\n');
+        }
+        counter(text, "remesh_files", "Files converted.", files);
+        counter(text, "remesh_fragments", "YAML documents processed.", fragments);
+        counter(text, "remesh_resources", "Resources written.", resources);
+        counter(text, "remesh_read_bytes", "Bytes of input read.", bytesRead);
+        gauge(text, "remesh_run_duration_seconds", "Wall-clock time of the run.", wallSeconds);
+        gauge(text, "remesh_files_per_second", "Files converted per second of wall-clock time.", filesPerSecond);
+        gauge(text, "remesh_fragments_per_second", "Documents processed per second of wall-clock time.", fragmentsPerSecond);
+        text.append("# EOF\n");
+        return text.toString();
+    }
+
+    private static void counter(StringBuilder text, String name, String help, long value) {
+        text.append("# TYPE ").append(name).append(" counter\n");
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append(name).append("_total ").append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder text, String name, String help, double value) {
+        text.append("# TYPE ").append(name).append(" gauge\n");
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append(name).append(' ').append(String.format(Locale.ROOT, "%.6f", value)).append('\n');
+    }
+}
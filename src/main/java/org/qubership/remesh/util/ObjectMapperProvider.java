@@ -7,9 +7,11 @@ import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.qubership.remesh.diagnostics.Diagnostics;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -23,6 +25,13 @@ public class ObjectMapperProvider {
         return MAPPER;
     }
 
+    /**
+     * Reader for {@code type} that counts unknown properties in {@code diagnostics}.
+     */
+    public static ObjectReader readerFor(Class<?> type, Diagnostics diagnostics) {
+        return MAPPER.readerFor(type).withAttribute(Diagnostics.class, diagnostics);
+    }
+
     static ObjectMapper constructMapper() {
         ObjectMapper result = new ObjectMapper(new YAMLFactory());
 
@@ -35,12 +44,15 @@ public class ObjectMapperProvider {
                         ? (Class<?>) beanOrClass
                         : beanOrClass.getClass();
 
-                String path = buildPath(p, propertyName);
-
-                log.warn("    Unknown YAML property '{}' for type '{}', location: {}",
-                        propertyName,
-                        targetClass.getSimpleName(),
-                        path);
+                if (ctxt.getAttribute(Diagnostics.class) instanceof Diagnostics diagnostics) {
+                    diagnostics.unknownProperty(targetClass, propertyName, p.getParsingContext().getParent());
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("    Unknown YAML property '{}' for type '{}', location: {}",
+                            propertyName,
+                            targetClass.getSimpleName(),
+                            buildPath(p, propertyName));
+                }
 
                 p.skipChildren();
                 return true;
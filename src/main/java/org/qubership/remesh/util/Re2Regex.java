@@ -0,0 +1,380 @@
+package org.qubership.remesh.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Analyzer and optimizer for header value regexes run by Envoy with RE2. Envoy matches the whole header value, so
+ * anchors at both ends are redundant and a regex matching a single string is an exact match. Constructs RE2 has no
+ * support for, such as lookaround and backreferences, are reported, and the size of the compiled program is
+ * estimated the way RE2 builds it: one instruction per byte or range, one per repetition or alternative, a repeat
+ * count copying its operand. Values with Helm templates are left alone, since their content is only known after
+ * rendering.
+ */
+public final class Re2Regex {
+    // Envoy rejects programs over re2.max_program_size.error_level, 100 by default
+    public static final int DEFAULT_PROGRAM_BUDGET = 100;
+    private static final int MAX_REPEAT = 1000;
+    private static final String META = "\\.+*?()|[]{}^$";
+
+    /**
+     * @param regex       cheapest equivalent regex
+     * @param literal     the only value the regex matches, or {@code null}
+     * @param programSize estimated RE2 program size of {@code regex}, or -1 for templated values
+     * @param unsupported why RE2 can't compile the regex, or {@code null}
+     */
+    public record Analysis(String regex, String literal, int programSize, String unsupported) {
+    }
+
+    /**
+     * Escapes only the characters RE2 treats as syntax. Templated values keep {@code \Q...\E} quoting, so the
+     * rendered value is matched literally whatever it contains.
+     */
+    public static String quote(String literal) {
+        if (literal.contains("{{")) {
+            return "\\Q" + literal + "\\E";
+        }
+        StringBuilder result = new StringBuilder(literal.length() + 8);
+        literal.codePoints().forEach(c -> appendQuoted(result, c));
+        return result.toString();
+    }
+
+    public static Analysis analyze(String regex) {
+        if (regex.contains("{{")) {
+            return new Analysis(regex, null, -1, null);
+        }
+        Parser parser = new Parser(regex);
+        List<List<Atom>> branches = parser.alternation();
+        if (parser.pos < regex.length() && parser.unsupported == null) {
+            parser.unsupported = "unmatched ')'";
+        }
+        if (parser.unsupported != null) {
+            return new Analysis(regex, null, -1, parser.unsupported);
+        }
+        if (branches.size() > 1) {
+            return new Analysis(regex, null, (int) Math.min(Integer.MAX_VALUE, 2 + size(branches)), null);
+        }
+
+        List<Atom> atoms = new ArrayList<>(branches.getFirst());
+        while (!atoms.isEmpty() && atoms.getFirst().text.equals("^")) {
+            atoms.removeFirst();
+        }
+        while (!atoms.isEmpty() && atoms.getLast().text.equals("$")) {
+            atoms.removeLast();
+        }
+        StringBuilder optimized = new StringBuilder(regex.length());
+        StringBuilder literal = new StringBuilder();
+        for (Atom atom : atoms) {
+            optimized.append(atom.text);
+            if (literal != null && atom.literal != null) {
+                literal.append(atom.literal);
+            } else {
+                literal = null;
+            }
+        }
+        int programSize = (int) Math.min(Integer.MAX_VALUE, 2 + size(List.of(atoms)));
+        return new Analysis(optimized.toString(), literal != null && !literal.isEmpty() ? literal.toString() : null,
+                programSize, null);
+    }
+
+    private static long size(List<List<Atom>> branches) {
+        long size = branches.size() - 1;
+        for (List<Atom> branch : branches) {
+            for (Atom atom : branch) {
+                size += atom.size;
+            }
+        }
+        return size;
+    }
+
+    private static void appendQuoted(StringBuilder out, int c) {
+        if (META.indexOf(c) >= 0) {
+            out.append('\\').append((char) c);
+        } else if (c < 0x20 || c == 0x7f) {
+            out.append(String.format("\\x%02x", c));
+        } else {
+            out.appendCodePoint(c);
+        }
+    }
+
+    private static int utf8Length(int c) {
+        return new String(Character.toChars(c)).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // text is the atom as it is emitted, literal the character it matches if it is a plain character
+    private record Atom(String text, long size, String literal) {
+
+        static Atom literal(int c) {
+            StringBuilder text = new StringBuilder();
+            appendQuoted(text, c);
+            return new Atom(text.toString(), utf8Length(c), new String(Character.toChars(c)));
+        }
+    }
+
+    private static final class Parser {
+        private final String s;
+        private int pos;
+        private String unsupported;
+
+        private Parser(String s) {
+            this.s = s;
+        }
+
+        List<List<Atom>> alternation() {
+            List<List<Atom>> branches = new ArrayList<>();
+            branches.add(concatenation());
+            while (unsupported == null && pos < s.length() && s.charAt(pos) == '|') {
+                pos++;
+                branches.add(concatenation());
+            }
+            return branches;
+        }
+
+        private List<Atom> concatenation() {
+            List<Atom> atoms = new ArrayList<>();
+            while (unsupported == null && pos < s.length() && s.charAt(pos) != '|' && s.charAt(pos) != ')') {
+                char c = s.charAt(pos);
+                if (c == '\\' && pos + 1 < s.length() && s.charAt(pos + 1) == 'Q') {
+                    int end = s.indexOf("\\E", pos + 2);
+                    String quoted = s.substring(pos + 2, end < 0 ? s.length() : end);
+                    pos = end < 0 ? s.length() : end + 2;
+                    quoted.codePoints().forEach(q -> atoms.add(Atom.literal(q)));
+                    if (!atoms.isEmpty()) {
+                        atoms.add(repetition(atoms.removeLast()));
+                    }
+                    continue;
+                }
+                atoms.add(repetition(atom()));
+            }
+            return atoms;
+        }
+
+        private Atom atom() {
+            int start = pos;
+            int c = s.codePointAt(pos);
+            pos += Character.charCount(c);
+            switch (c) {
+                case '(' -> {
+                    return group(start);
+                }
+                case '[' -> {
+                    return characterClass(start);
+                }
+                case '.' -> {
+                    // UTF-8 sequences of any character but newline
+                    return new Atom(".", 4, null);
+                }
+                case '^', '$' -> {
+                    return new Atom(String.valueOf((char) c), 1, null);
+                }
+                case '\\' -> {
+                    return escape(start);
+                }
+                case '*', '+', '?' -> {
+                    unsupported = "missing argument to repetition operator at " + start;
+                    return new Atom("", 0, null);
+                }
+                default -> {
+                    return Atom.literal(c);
+                }
+            }
+        }
+
+        private Atom group(int start) {
+            boolean capturing = true;
+            if (s.startsWith("?", pos)) {
+                String rest = s.substring(pos + 1);
+                if (rest.startsWith("=") || rest.startsWith("!") || rest.startsWith("<=") || rest.startsWith("<!")) {
+                    unsupported = "lookaround at " + start;
+                } else if (rest.startsWith(">")) {
+                    unsupported = "atomic group at " + start;
+                } else if (rest.startsWith("(")) {
+                    unsupported = "conditional at " + start;
+                } else if (rest.startsWith("#")) {
+                    unsupported = "comment group at " + start;
+                } else if (rest.startsWith("R") || !rest.isEmpty() && Character.isDigit(rest.charAt(0))) {
+                    unsupported = "recursion at " + start;
+                } else if (rest.startsWith("P<") || rest.startsWith("<")) {
+                    pos = s.indexOf('>', pos) + 1;
+                    if (pos == 0) {
+                        unsupported = "unterminated group name at " + start;
+                    }
+                } else {
+                    // flags, optionally followed by a non-capturing group: (?i) or (?i:...)
+                    pos++;
+                    while (pos < s.length() && "imsU-".indexOf(s.charAt(pos)) >= 0) {
+                        pos++;
+                    }
+                    if (pos < s.length() && s.charAt(pos) == ')') {
+                        pos++;
+                        return new Atom(s.substring(start, pos), 0, null);
+                    }
+                    if (pos >= s.length() || s.charAt(pos) != ':') {
+                        unsupported = "unknown group flag at " + start;
+                    }
+                    pos++;
+                    capturing = false;
+                }
+                if (unsupported != null) {
+                    return new Atom("", 0, null);
+                }
+            }
+            List<List<Atom>> inner = alternation();
+            if (unsupported != null) {
+                return new Atom("", 0, null);
+            }
+            if (pos >= s.length()) {
+                unsupported = "missing ')' for group at " + start;
+                return new Atom("", 0, null);
+            }
+            pos++;
+            return new Atom(s.substring(start, pos), size(inner) + (capturing ? 2 : 0), null);
+        }
+
+        private Atom characterClass(int start) {
+            if (s.startsWith("^", pos)) {
+                pos++;
+            }
+            int ranges = 0;
+            boolean first = true;
+            while (pos < s.length() && (first || s.charAt(pos) != ']')) {
+                first = false;
+                if (s.startsWith("[:", pos)) {
+                    int end = s.indexOf(":]", pos + 2);
+                    pos = end < 0 ? s.length() : end + 2;
+                    ranges += 2;
+                } else if (s.charAt(pos) == '\\') {
+                    pos = Math.min(s.length(), pos + 2);
+                    ranges++;
+                } else if (s.charAt(pos) == '-' && ranges > 0 && pos + 1 < s.length() && s.charAt(pos + 1) != ']') {
+                    // the upper bound of a range adds no instruction
+                    pos += 2;
+                } else {
+                    pos += Character.charCount(s.codePointAt(pos));
+                    ranges++;
+                }
+            }
+            if (pos >= s.length()) {
+                unsupported = "missing ']' for class at " + start;
+                return new Atom("", 0, null);
+            }
+            pos++;
+            return new Atom(s.substring(start, pos), Math.max(1, ranges), null);
+        }
+
+        private Atom escape(int start) {
+            if (pos >= s.length()) {
+                unsupported = "trailing '\\'";
+                return new Atom("", 0, null);
+            }
+            char c = s.charAt(pos++);
+            switch (c) {
+                case '1', '2', '3', '4', '5', '6', '7', '8', '9', 'k', 'g' -> unsupported = "backreference at " + start;
+                case 'G', 'Z', 'R', 'X', 'K', 'h', 'H', 'V' -> unsupported = "escape \\" + c + " at " + start;
+                case 'd', 'w', 's' -> {
+                    return new Atom(s.substring(start, pos), c == 'd' ? 1 : 4, null);
+                }
+                case 'D', 'W', 'S' -> {
+                    // negated classes cover the rest of UTF-8
+                    return new Atom(s.substring(start, pos), 8, null);
+                }
+                case 'p', 'P' -> {
+                    if (s.startsWith("{", pos)) {
+                        int end = s.indexOf('}', pos);
+                        pos = end < 0 ? s.length() : end + 1;
+                    } else {
+                        pos = Math.min(s.length(), pos + 1);
+                    }
+                    return new Atom(s.substring(start, pos), 20, null);
+                }
+                case 'b', 'B', 'A', 'z', 'C' -> {
+                    return new Atom(s.substring(start, pos), 1, null);
+                }
+                case 'x' -> {
+                    int end = s.startsWith("{", pos) ? s.indexOf('}', pos) : Math.min(s.length(), pos + 2);
+                    String hex = s.startsWith("{", pos) ? s.substring(pos + 1, Math.max(pos + 1, end)) : s.substring(pos, end);
+                    try {
+                        pos = s.startsWith("{", pos) ? end + 1 : end;
+                        return Atom.literal(Integer.parseInt(hex, 16));
+                    } catch (IllegalArgumentException e) {
+                        unsupported = "invalid hex escape at " + start;
+                    }
+                }
+                case 'n' -> {
+                    return Atom.literal('\n');
+                }
+                case 't' -> {
+                    return Atom.literal('\t');
+                }
+                case 'r' -> {
+                    return Atom.literal('\r');
+                }
+                case 'f' -> {
+                    return Atom.literal('\f');
+                }
+                case 'v' -> {
+                    return Atom.literal(0x0b);
+                }
+                case 'a' -> {
+                    return Atom.literal(0x07);
+                }
+                default -> {
+                    if (Character.isLetterOrDigit(c)) {
+                        unsupported = "escape \\" + c + " at " + start;
+                    } else {
+                        return Atom.literal(c);
+                    }
+                }
+            }
+            return new Atom("", 0, null);
+        }
+
+        private Atom repetition(Atom atom) {
+            if (unsupported != null || pos >= s.length()) {
+                return atom;
+            }
+            int start = pos;
+            char c = s.charAt(pos);
+            long size;
+            if (c == '*' || c == '+' || c == '?') {
+                pos++;
+                size = atom.size + 1;
+            } else if (c == '{') {
+                int end = s.indexOf('}', pos);
+                String[] bounds = end < 0 ? null : s.substring(pos + 1, end).split(",", -1);
+                if (bounds == null || bounds.length > 2 || !bounds[0].matches("\\d+")
+                        || bounds.length == 2 && !bounds[1].matches("\\d*")) {
+                    // not a repeat, RE2 reads '{' as a literal
+                    return atom;
+                }
+                long min = Long.parseLong(bounds[0]);
+                long max = bounds.length == 1 ? min : bounds[1].isEmpty() ? -1 : Long.parseLong(bounds[1]);
+                if (min > MAX_REPEAT || max > MAX_REPEAT || max >= 0 && max < min) {
+                    unsupported = "bad repeat count at " + start;
+                    return atom;
+                }
+                pos = end + 1;
+                size = max < 0 ? Math.max(1, min) * atom.size + 1 : min * atom.size + (max - min) * (atom.size + 1);
+            } else {
+                return atom;
+            }
+            if (pos < s.length() && s.charAt(pos) == '?') {
+                pos++;
+            }
+            if (pos < s.length() && "*+?{".indexOf(s.charAt(pos)) >= 0 && !(s.charAt(pos) == '{' && !isRepeat())) {
+                unsupported = s.charAt(pos) == '+' ? "possessive repetition at " + start : "bad repetition operator at " + start;
+                return atom;
+            }
+            return new Atom(atom.text + s.substring(start, pos), size, null);
+        }
+
+        private boolean isRepeat() {
+            int end = s.indexOf('}', pos);
+            return end > 0 && s.substring(pos + 1, end).matches("\\d+(,\\d*)?");
+        }
+    }
+
+    private Re2Regex() {
+    }
+}
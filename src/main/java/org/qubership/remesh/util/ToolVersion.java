@@ -0,0 +1,29 @@
+package org.qubership.remesh.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+public final class ToolVersion {
+    private static final String POM_PROPERTIES = "META-INF/maven/org.qubership/remesh/pom.properties";
+    private static final String VERSION = loadVersion();
+
+    public static String get() {
+        return VERSION;
+    }
+
+    private static String loadVersion() {
+        try (InputStream is = ToolVersion.class.getClassLoader().getResourceAsStream(POM_PROPERTIES)) {
+            if (is != null) {
+                Properties properties = new Properties();
+                properties.load(is);
+                return properties.getProperty("version", "dev");
+            }
+        } catch (IOException e) {
+            // fall through to the development version
+        }
+        return "dev";
+    }
+
+    private ToolVersion() {}
+}
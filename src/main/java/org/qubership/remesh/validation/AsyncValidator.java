@@ -0,0 +1,88 @@
+package org.qubership.remesh.validation;
+
+import org.qubership.remesh.handler.Resource;
+import org.qubership.remesh.jfr.ValidationEvent;
+import org.qubership.remesh.stats.RunStats;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates resources on its own pool so writing does not wait for it. Results keep the file and
+ * fragment they came from and are returned as one {@link ValidationReport} by {@link #finish()}.
+ * The queue is bounded; when it is full the submitting thread validates the resource itself, so
+ * converted resources can't pile up in memory faster than they are validated.
+ */
+public class AsyncValidator {
+    static final int QUEUE_PER_THREAD = 64;
+
+    private final ResourceValidator resourceValidator;
+    private final RunStats stats;
+    private final ExecutorService executor;
+    private final Queue<ValidationReport.Issue> issues = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger validated = new AtomicInteger();
+
+    public AsyncValidator(ResourceValidator resourceValidator, int threads) {
+        this(resourceValidator, threads, RunStats.DISABLED);
+    }
+
+    public AsyncValidator(ResourceValidator resourceValidator, int threads, RunStats stats) {
+        this.resourceValidator = resourceValidator;
+        this.stats = stats;
+        AtomicInteger counter = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * QUEUE_PER_THREAD), runnable -> {
+            Thread thread = new Thread(runnable, "remesh-validate-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Queues {@code resource} for validation, or validates it on the calling thread when the queue is full.
+     * The resource must not be modified afterwards.
+     */
+    public void submit(Path file, int fragment, int index, Resource resource) {
+        executor.execute(() -> {
+            List<String> errors;
+            ValidationEvent event = new ValidationEvent();
+            event.begin();
+            long start = stats.start();
+            try {
+                errors = resourceValidator.errors(resource);
+            } catch (RuntimeException e) {
+                errors = List.of("validation failed: " + e.getMessage());
+            }
+            stats.record(RunStats.VALIDATE, start);
+            if (event.shouldCommit()) {
+                event.path = String.valueOf(file);
+                event.fragment = fragment;
+                event.resource = index;
+                event.kind = resource.getKind();
+                event.errors = errors.size();
+                event.commit();
+            }
+            if (!errors.isEmpty()) {
+                issues.add(new ValidationReport.Issue(file, fragment, index, resource.getKind(), errors));
+            }
+            validated.incrementAndGet();
+        });
+    }
+
+    /**
+     * Waits for every submitted resource and shuts the pool down.
+     */
+    public ValidationReport finish() {
+        executor.close();
+        return new ValidationReport(validated.get(), new ArrayList<>(issues));
+    }
+}
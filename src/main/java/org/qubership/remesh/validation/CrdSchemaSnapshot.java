@@ -0,0 +1,61 @@
+package org.qubership.remesh.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Build-time extraction of the {@code v1} {@code openAPIV3Schema} from bundled CRDs into minified JSON,
+ * so {@link JsonSchemaValidator} does not have to parse the whole CRD YAML at runtime.
+ * Runs in the {@code process-classes} phase: {@code CrdSchemaSnapshot <crd dir> <output dir>}.
+ */
+public final class CrdSchemaSnapshot {
+    static final String SNAPSHOT_SUFFIX = ".schema.json";
+    private static final String CRD_SUFFIX = ".yaml";
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: CrdSchemaSnapshot <crd dir> <output dir>");
+        }
+        write(Path.of(args[0]), Path.of(args[1]));
+    }
+
+    static List<Path> write(Path crdDir, Path outputDir) throws IOException {
+        List<Path> crds;
+        try (Stream<Path> stream = Files.list(crdDir)) {
+            crds = stream.filter(p -> p.getFileName().toString().endsWith(CRD_SUFFIX)).sorted().toList();
+        }
+        Files.createDirectories(outputDir);
+        for (Path crd : crds) {
+            JsonNode schema = extractSchema(YAML_MAPPER.readTree(crd.toFile()), crd.toString());
+            Files.write(outputDir.resolve(snapshotName(crd.getFileName().toString())), JSON_MAPPER.writeValueAsBytes(schema));
+        }
+        return crds;
+    }
+
+    static JsonNode extractSchema(JsonNode crd, String source) {
+        for (JsonNode v : crd.at("/spec/versions")) {
+            if ("v1".equals(v.path("name").asText())) {
+                return v.at("/schema/openAPIV3Schema");
+            }
+        }
+        throw new IllegalStateException("v1 schema not found in CRD: " + source);
+    }
+
+    static String snapshotName(String schemaFileName) {
+        String base = schemaFileName.endsWith(CRD_SUFFIX)
+                ? schemaFileName.substring(0, schemaFileName.length() - CRD_SUFFIX.length())
+                : schemaFileName;
+        return base + SNAPSHOT_SUFFIX;
+    }
+
+    private CrdSchemaSnapshot() {}
+}
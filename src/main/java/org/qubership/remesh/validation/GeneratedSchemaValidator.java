@@ -0,0 +1,140 @@
+package org.qubership.remesh.validation;
+
+import org.qubership.remesh.handler.Resource;
+import org.qubership.remesh.serialization.ExtendedIntegerSerializer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Checks shared by generated {@link TypedSchemaValidator}s. Each check mirrors the networknt keyword of the
+ * same name, including its message, for the JSON value Jackson would write for the field.
+ */
+public abstract class GeneratedSchemaValidator<T extends Resource> implements TypedSchemaValidator<T> {
+    private static final ExtendedIntegerSerializer INTEGER_SERIALIZER = new ExtendedIntegerSerializer();
+
+    /**
+     * JSON type of a serialized value, named as in networknt type errors.
+     */
+    protected enum Kind {
+        STRING("string"),
+        INTEGER("integer"),
+        OBJECT("object"),
+        ARRAY("array"),
+        NULL("null"),
+        UNKNOWN("unknown");
+
+        private final String jsonType;
+
+        Kind(String jsonType) {
+            this.jsonType = jsonType;
+        }
+
+        boolean matches(String expected) {
+            return jsonType.equals(expected) || this == INTEGER && "number".equals(expected);
+        }
+    }
+
+    protected record SchemaEnum(String text, Set<String> strings, Set<Integer> integers) {
+    }
+
+    /**
+     * Kind of a field written by {@link ExtendedIntegerSerializer}: placeholders are written raw.
+     */
+    protected static Kind integerOrString(String value) {
+        if (value == null) {
+            return Kind.NULL;
+        }
+        if (INTEGER_SERIALIZER.isHelmPlaceholder(value)) {
+            return Kind.UNKNOWN;
+        }
+        return INTEGER_SERIALIZER.isInteger(value) ? Kind.INTEGER : Kind.STRING;
+    }
+
+    protected static Kind string(Object value) {
+        return value == null ? Kind.NULL : Kind.STRING;
+    }
+
+    protected static boolean present(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    protected static boolean present(Collection<?> value) {
+        return value != null && !value.isEmpty();
+    }
+
+    protected static boolean present(Map<?, ?> value) {
+        return value != null && !value.isEmpty();
+    }
+
+    protected static void required(List<String> errors, SchemaPath path, String property) {
+        errors.add(path + ": " + path.resolve(property) + ": is missing but it is required");
+    }
+
+    protected static void type(List<String> errors, SchemaPath path, String property, Kind found, String expected) {
+        if (!found.matches(expected)) {
+            error(errors, path, property, found.jsonType + " found, " + expected + " expected");
+        }
+    }
+
+    protected static void enumeration(List<String> errors, SchemaPath path, String property, Kind kind, String value, SchemaEnum allowed) {
+        boolean valid = switch (kind) {
+            case STRING -> allowed.strings().contains(value);
+            case INTEGER -> allowed.integers().contains(Integer.parseInt(value));
+            default -> false;
+        };
+        if (!valid) {
+            error(errors, path, property, "does not have a value in the enumeration " + allowed.text());
+        }
+    }
+
+    protected static void minLength(List<String> errors, SchemaPath path, String property, Kind kind, String value, int min) {
+        if (kind == Kind.STRING && value.codePointCount(0, value.length()) < min) {
+            error(errors, path, property, "must be at least " + min + " characters long");
+        }
+    }
+
+    protected static void maxLength(List<String> errors, SchemaPath path, String property, Kind kind, String value, int max) {
+        if (kind == Kind.STRING && value.codePointCount(0, value.length()) > max) {
+            error(errors, path, property, "may only be " + max + " characters long");
+        }
+    }
+
+    protected static void pattern(List<String> errors, SchemaPath path, String property, Kind kind, String value, Pattern pattern) {
+        if (kind == Kind.STRING && !pattern.matcher(value).find()) {
+            error(errors, path, property, "does not match the regex pattern " + pattern.pattern());
+        }
+    }
+
+    protected static void minimum(List<String> errors, SchemaPath path, String property, Kind kind, String value, long min) {
+        if (kind == Kind.INTEGER && Integer.parseInt(value) < min) {
+            error(errors, path, property, "must have a minimum value of " + min);
+        }
+    }
+
+    protected static void maximum(List<String> errors, SchemaPath path, String property, Kind kind, String value, long max) {
+        if (kind == Kind.INTEGER && Integer.parseInt(value) > max) {
+            error(errors, path, property, "must have a maximum value of " + max);
+        }
+    }
+
+    protected static void minItems(List<String> errors, SchemaPath path, String property, Collection<?> value, int min) {
+        if (value.size() < min) {
+            error(errors, path, property, "there must be a minimum of " + min + " items in the array");
+        }
+    }
+
+    protected static void maxItems(List<String> errors, SchemaPath path, String property, Collection<?> value, int max) {
+        if (value.size() > max) {
+            error(errors, path, property, "there must be a maximum of " + max + " items in the array");
+        }
+    }
+
+    private static void error(List<String> errors, SchemaPath path, String property, String message) {
+        String location = path.resolve(property);
+        errors.add(location + ": " + location + ": " + message);
+    }
+}
@@ -10,21 +10,29 @@ import com.networknt.schema.NonValidationKeyword;
 import com.networknt.schema.SpecVersion;
 import com.networknt.schema.ValidationMessage;
 import lombok.extern.slf4j.Slf4j;
+import org.qubership.remesh.jfr.SchemaLoadEvent;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 public final class JsonSchemaValidator {
     private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
     private static final JsonSchemaFactory JSON_SCHEMA_FACTORY = buildSchemaFactory();
     private static final Map<String, JsonSchema> SCHEMA_CACHE = new ConcurrentHashMap<>();
     private static final String SCHEMAS_DIR = "schemas/";
 
     public static void validate(JsonNode resourceJson, String schemaFileName) {
+        report(errors(resourceJson, schemaFileName));
+    }
+
+    static List<String> errors(JsonNode resourceJson, String schemaFileName) {
         if (schemaFileName == null || schemaFileName.isBlank()) {
             throw new IllegalArgumentException("Schema file name must be provided");
         }
@@ -33,19 +41,11 @@ public final class JsonSchemaValidator {
                     schemaFileName,
                     JsonSchemaValidator::loadSchema);
 
-            Set<ValidationMessage> errors = schema.validate(resourceJson);
-
-            if (!errors.isEmpty()) {
-                StringBuilder sb = new StringBuilder("Resource validation failed:\n");
-                for (ValidationMessage e : errors) {
-                    sb.append(" - ")
-                            .append(e.getPath())
-                            .append(": ")
-                            .append(e.getMessage())
-                            .append('\n');
-                }
-                log.error(sb.toString());
+            List<String> errors = new ArrayList<>();
+            for (ValidationMessage e : schema.validate(resourceJson)) {
+                errors.add(e.getPath() + ": " + e.getMessage());
             }
+            return errors;
         } catch (Exception e) {
             throw new IllegalArgumentException(
                     "Failed to validate resource against schema %s".formatted(schemaFileName),
@@ -53,7 +53,51 @@ public final class JsonSchemaValidator {
         }
     }
 
+    static void report(List<String> errors) {
+        if (!errors.isEmpty()) {
+            StringBuilder sb = new StringBuilder("Resource validation failed:\n");
+            for (String error : errors) {
+                sb.append(" - ")
+                        .append(error)
+                        .append('\n');
+            }
+            log.error(sb.toString());
+        }
+    }
+
     static JsonSchema loadSchema(String schemaFileName) {
+        SchemaLoadEvent event = new SchemaLoadEvent();
+        event.begin();
+        try {
+            JsonNode schemaNode = readSnapshot(schemaFileName);
+            event.snapshot = schemaNode != null;
+            if (schemaNode == null) {
+                schemaNode = readCrd(schemaFileName);
+            }
+
+            JsonSchema schema = JSON_SCHEMA_FACTORY.getSchema(schemaNode);
+            // validators are otherwise built lazily on first use, which races when workers share the cached schema
+            schema.initializeValidators();
+            if (event.shouldCommit()) {
+                event.schema = schemaFileName;
+                event.commit();
+            }
+            return schema;
+
+        } catch (Exception e) {
+            throw new IllegalStateException(
+                    "Failed to load CRD schema: " + schemaFileName, e);
+        }
+    }
+
+    static JsonNode readSnapshot(String schemaFileName) throws IOException {
+        String resourcePath = SCHEMAS_DIR + CrdSchemaSnapshot.snapshotName(schemaFileName);
+        try (InputStream is = JsonSchemaValidator.class.getClassLoader().getResourceAsStream(resourcePath)) {
+            return is == null ? null : JSON_MAPPER.readTree(is);
+        }
+    }
+
+    static JsonNode readCrd(String schemaFileName) throws IOException {
         String resourcePath = SCHEMAS_DIR + schemaFileName;
         try (InputStream is =
                      JsonSchemaValidator.class
@@ -64,25 +108,8 @@ public final class JsonSchemaValidator {
                 throw new IllegalStateException("Schema resource not found: " + resourcePath);
             }
 
-            JsonNode crd = YAML_MAPPER.readTree(is);
-
-            JsonNode schemaNode = null;
-            for (JsonNode v : crd.at("/spec/versions")) {
-                if ("v1".equals(v.path("name").asText())) {
-                    schemaNode = v.at("/schema/openAPIV3Schema");
-                    break;
-                }
-            }
-
-            if (schemaNode == null) {
-                throw new IllegalStateException("v1 schema not found in CRD: " + resourcePath);
-            }
-
-            return JSON_SCHEMA_FACTORY.getSchema(schemaNode);
-
-        } catch (Exception e) {
-            throw new IllegalStateException(
-                    "Failed to load CRD schema: " + schemaFileName, e);
+            log.debug("No precompiled snapshot for {}, parsing CRD", schemaFileName);
+            return CrdSchemaSnapshot.extractSchema(YAML_MAPPER.readTree(is), resourcePath);
         }
     }
 
@@ -5,20 +5,27 @@ import lombok.extern.slf4j.Slf4j;
 import org.qubership.remesh.handler.Resource;
 import org.qubership.remesh.util.ObjectMapperProvider;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
-import static org.qubership.remesh.validation.JsonSchemaValidator.validate;
-
 @Slf4j
 public class ResourceValidator {
     private static final Pattern API_VERSION_SUFFIX = Pattern.compile("/v\\w+$");
 
     public void validateResource(Resource resource) {
-        JsonNode resourceNode = ObjectMapperProvider.getMapper().valueToTree(resource);
         log.info("    Start validating {}", Optional.ofNullable(resource.getKind()).orElse("resource"));
+        JsonSchemaValidator.report(errors(resource));
+    }
+
+    public List<String> errors(Resource resource) {
         String schemaFileName = schemaFileName(resource);
-        validate(resourceNode, schemaFileName);
+        TypedSchemaValidator<Resource> typed = TypedSchemaValidatorRegistry.get(resource, schemaFileName);
+        if (typed != null) {
+            return typed.validate(resource);
+        }
+        JsonNode resourceNode = ObjectMapperProvider.getMapper().valueToTree(resource);
+        return JsonSchemaValidator.errors(resourceNode, schemaFileName);
     }
 
     public String schemaFileName(Resource resource) {
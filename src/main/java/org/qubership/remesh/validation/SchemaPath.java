@@ -0,0 +1,39 @@
+package org.qubership.remesh.validation;
+
+/**
+ * Location inside a resource in the {@code $.spec.rules[0].name} form used by {@link JsonSchemaValidator}.
+ * The string is only built when an error is reported.
+ */
+public final class SchemaPath {
+    public static final SchemaPath ROOT = new SchemaPath(null, "$", -1);
+
+    private final SchemaPath parent;
+    private final String name;
+    private final int index;
+
+    private SchemaPath(SchemaPath parent, String name, int index) {
+        this.parent = parent;
+        this.name = name;
+        this.index = index;
+    }
+
+    public SchemaPath property(String name) {
+        return new SchemaPath(this, name, -1);
+    }
+
+    public SchemaPath index(int index) {
+        return new SchemaPath(this, null, index);
+    }
+
+    String resolve(String property) {
+        return property == null ? toString() : this + "." + property;
+    }
+
+    @Override
+    public String toString() {
+        if (parent == null) {
+            return name;
+        }
+        return name != null ? parent + "." + name : parent + "[" + index + "]";
+    }
+}
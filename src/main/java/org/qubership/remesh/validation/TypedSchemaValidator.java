@@ -0,0 +1,21 @@
+package org.qubership.remesh.validation;
+
+import org.qubership.remesh.handler.Resource;
+
+import java.util.List;
+
+/**
+ * Validates a resource object directly against the schema it was generated from, without converting it
+ * to a {@code JsonNode}. Implementations are generated at build time by {@link TypedSchemaValidatorGenerator}
+ * and registered through {@link java.util.ServiceLoader}.
+ */
+public interface TypedSchemaValidator<T extends Resource> {
+    Class<T> resourceType();
+
+    String schemaFileName();
+
+    /**
+     * Returns errors formatted the same way as {@link JsonSchemaValidator#errors}.
+     */
+    List<String> validate(T resource);
+}
@@ -0,0 +1,539 @@
+package org.qubership.remesh.validation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.qubership.remesh.handler.Resource;
+import org.qubership.remesh.serialization.ExtendedIntegerSerializer;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Build-time generator of {@link TypedSchemaValidator}s. Walks a resource class and the precompiled schema
+ * snapshot of its CRD side by side and emits Java code that checks the getters directly, with the checks
+ * and messages networknt would produce for the serialized resource.
+ * Runs in the {@code process-classes} phase:
+ * {@code TypedSchemaValidatorGenerator <schema dir> <source dir> <services dir> <resource class>...}.
+ * Schema keywords it cannot reproduce fail the build instead of being skipped.
+ */
+public final class TypedSchemaValidatorGenerator {
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final String PACKAGE = TypedSchemaValidatorGenerator.class.getPackageName();
+    private static final Set<String> IGNORED_KEYWORDS = Set.of(
+            "description", "default", "x-kubernetes-validations", "x-kubernetes-list-type",
+            "x-kubernetes-list-map-keys", "x-kubernetes-map-type");
+    private static final Set<String> SUPPORTED_KEYWORDS = Set.of(
+            "type", "properties", "required", "items", "enum", "format", "minItems", "maxItems",
+            "minLength", "maxLength", "pattern", "minimum", "maximum");
+    // integer values written by ExtendedIntegerSerializer always fit these
+    private static final Set<String> INTEGER_FORMATS = Set.of("int32", "int64");
+    private static final Set<String> RESERVED_NAMES = Set.of(
+            "target", "path", "errors", "kind", "item", "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char",
+            "class", "const", "continue", "default", "do", "double", "else", "enum", "extends", "final",
+            "finally", "float", "for", "goto", "if", "implements", "import", "instanceof", "int", "interface",
+            "long", "native", "new", "package", "private", "protected", "public", "return", "short", "static",
+            "strictfp", "super", "switch", "synchronized", "this", "throw", "throws", "transient", "try", "void",
+            "volatile", "while");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            throw new IllegalArgumentException(
+                    "Usage: TypedSchemaValidatorGenerator <schema dir> <source dir> <services dir> <resource class>...");
+        }
+        Path schemaDir = Path.of(args[0]);
+        Path sourceDir = Path.of(args[1]).resolve(PACKAGE.replace('.', '/'));
+        Path servicesFile = Path.of(args[2]).resolve(TypedSchemaValidator.class.getName());
+        Files.createDirectories(sourceDir);
+        Files.createDirectories(servicesFile.getParent());
+
+        List<String> services = new ArrayList<>();
+        for (String className : Arrays.copyOfRange(args, 3, args.length)) {
+            Class<? extends Resource> type = Class.forName(className).asSubclass(Resource.class);
+            String schemaFileName = new ResourceValidator().schemaFileName(type.getDeclaredConstructor().newInstance());
+            JsonNode schema = JSON_MAPPER.readTree(schemaDir.resolve(CrdSchemaSnapshot.snapshotName(schemaFileName)).toFile());
+
+            String validatorName = validatorName(type);
+            Files.writeString(sourceDir.resolve(validatorName + ".java"), generate(type, schema, schemaFileName));
+            services.add(PACKAGE + "." + validatorName);
+        }
+        Files.write(servicesFile, services);
+    }
+
+    static String validatorName(Class<?> type) {
+        return type.getSimpleName() + "SchemaValidator";
+    }
+
+    static String generate(Class<? extends Resource> type, JsonNode schema, String schemaFileName) {
+        return new Emitter(type).emit(schema, schemaFileName);
+    }
+
+    /**
+     * How a Java property is written by Jackson and therefore which JSON kinds it can take.
+     */
+    private enum Shape {
+        STRING,
+        INTEGER_OR_STRING,
+        ENUM,
+        LIST,
+        MAP,
+        BEAN
+    }
+
+    private record Property(String jsonName, String getter, Type type, Shape shape) {
+    }
+
+    private record MethodKey(Class<?> type, JsonNode schema) {
+    }
+
+    private static final class Emitter {
+        private final Class<?> rootType;
+        private final Set<Class<?>> imports = new TreeSet<>((a, b) -> a.getName().compareTo(b.getName()));
+        private final Map<String, String> constants = new LinkedHashMap<>();
+        private final Map<MethodKey, String> methodNames = new LinkedHashMap<>();
+        private final Map<String, String> methodBodies = new LinkedHashMap<>();
+        private final Set<MethodKey> inProgress = new HashSet<>();
+        private int depth;
+
+        Emitter(Class<?> rootType) {
+            this.rootType = rootType;
+        }
+
+        String emit(JsonNode schema, String schemaFileName) {
+            String rootMethod = method(rootType, schema, "$");
+            String typeName = typeName(rootType);
+            String validatorName = validatorName(rootType);
+
+            StringBuilder out = new StringBuilder();
+            out.append("package ").append(PACKAGE).append(";\n\n");
+            for (Class<?> imported : imports) {
+                out.append("import ").append(imported.getName()).append(";\n");
+            }
+            out.append("import java.util.ArrayList;\n");
+            out.append("import java.util.List;\n");
+            out.append("import java.util.Set;\n");
+            out.append("import java.util.regex.Pattern;\n\n");
+            out.append("/**\n * Generated by {@link TypedSchemaValidatorGenerator} from ").append(schemaFileName)
+                    .append(". Do not edit.\n */\n");
+            out.append("public final class ").append(validatorName)
+                    .append(" extends GeneratedSchemaValidator<").append(typeName).append("> {\n");
+            constants.forEach((name, initializer) ->
+                    out.append("    private static final ").append(initializer.startsWith("Pattern") ? "Pattern " : "SchemaEnum ")
+                            .append(name).append(" = ").append(initializer).append(";\n"));
+            if (!constants.isEmpty()) {
+                out.append('\n');
+            }
+            out.append("    @Override\n    public Class<").append(typeName).append("> resourceType() {\n")
+                    .append("        return ").append(typeName).append(".class;\n    }\n\n");
+            out.append("    @Override\n    public String schemaFileName() {\n")
+                    .append("        return ").append(literal(schemaFileName)).append(";\n    }\n\n");
+            out.append("    @Override\n    public List<String> validate(").append(typeName).append(" resource) {\n")
+                    .append("        List<String> errors = new ArrayList<>();\n");
+            if (rootMethod != null) {
+                out.append("        ").append(rootMethod).append("(resource, SchemaPath.ROOT, errors);\n");
+            }
+            out.append("        return errors;\n    }\n");
+            methodBodies.values().forEach(body -> out.append('\n').append(body));
+            out.append("}\n");
+            return out.toString();
+        }
+
+        /**
+         * Returns the name of the method validating {@code type} against {@code schema}, or null when the
+         * schema has no checks for it.
+         */
+        private String method(Class<?> type, JsonNode schema, String location) {
+            MethodKey key = new MethodKey(type, withoutIgnoredKeywords(schema));
+            if (methodNames.containsKey(key)) {
+                return methodNames.get(key);
+            }
+            if (!inProgress.add(key)) {
+                throw new IllegalStateException("Recursive type at " + location + ": " + type.getName());
+            }
+            checkKeywords(schema, location, Set.of("type", "properties", "required"));
+            int outerDepth = depth;
+            depth = 0;
+
+            Map<String, Property> properties = properties(type);
+            Set<String> required = new LinkedHashSet<>();
+            schema.path("required").forEach(name -> required.add(name.asText()));
+
+            StringBuilder body = new StringBuilder();
+            for (String name : required) {
+                if (!properties.containsKey(name) || schema.path("properties").path(name).isMissingNode()) {
+                    body.append("        required(errors, path, ").append(literal(name)).append(");\n");
+                }
+            }
+            for (Property property : properties.values()) {
+                JsonNode propertySchema = schema.path("properties").path(property.jsonName());
+                if (!propertySchema.isMissingNode()) {
+                    body.append(property(property, propertySchema, required.contains(property.jsonName()),
+                            location + "." + property.jsonName()));
+                }
+            }
+            inProgress.remove(key);
+            depth = outerDepth;
+            if (body.isEmpty()) {
+                methodNames.put(key, null);
+                return null;
+            }
+
+            String name = "validate" + type.getSimpleName();
+            for (int i = 2; methodBodies.containsKey(name); i++) {
+                name = "validate" + type.getSimpleName() + i;
+            }
+            methodNames.put(key, name);
+            methodBodies.put(name, "    private void " + name + "(" + typeName(type)
+                    + " target, SchemaPath path, List<String> errors) {\n" + body + "    }\n");
+            return name;
+        }
+
+        private String property(Property property, JsonNode schema, boolean required, String location) {
+            String variable = RESERVED_NAMES.contains(property.jsonName()) ? property.jsonName() + "Value" : property.jsonName();
+            String checks = checks(property.type(), property.shape(), schema, "path", literal(property.jsonName()),
+                    variable, location, "        ");
+            if (checks.isEmpty() && !required) {
+                return "";
+            }
+            StringBuilder out = new StringBuilder();
+            String getter = "target." + property.getter() + "()";
+            String requiredCall = "            required(errors, path, " + literal(property.jsonName()) + ");\n";
+            if (checks.isEmpty()) {
+                out.append("        if (").append(absence(property.shape(), getter)).append(") {\n").append(requiredCall);
+            } else {
+                out.append("        ").append(javaType(property.type())).append(' ').append(variable)
+                        .append(" = ").append(getter).append(";\n");
+                out.append("        if (").append(presence(property.shape(), variable)).append(") {\n").append(checks);
+                if (required) {
+                    out.append("        } else {\n").append(requiredCall);
+                }
+            }
+            out.append("        }\n");
+            return out.toString();
+        }
+
+        /**
+         * Checks for a value that is present in the serialized output: {@code path}/{@code property}
+         * locate it, {@code variable} holds it and may be null only for list elements.
+         */
+        private String checks(Type type, Shape shape, JsonNode schema, String path, String property,
+                              String variable, String location, String indent) {
+            String inner = indent + "    ";
+            StringBuilder out = new StringBuilder();
+            String expectedType = schema.path("type").isMissingNode() ? null : schema.path("type").asText();
+            switch (shape) {
+                case STRING, INTEGER_OR_STRING, ENUM -> {
+                    checkKeywords(schema, location, Set.of("type", "enum", "format", "minLength", "maxLength", "pattern",
+                            "minimum", "maximum"));
+                    boolean element = "null".equals(property);
+                    String kind = shape == Shape.INTEGER_OR_STRING ? "integerOrString(" + variable + ")"
+                            : element ? "string(" + variable + ")" : "Kind.STRING";
+                    String value = shape == Shape.ENUM ? variable + ".name()" : variable;
+                    StringBuilder scalar = new StringBuilder();
+                    if (expectedType != null && (shape == Shape.INTEGER_OR_STRING || !"string".equals(expectedType) || element)) {
+                        scalar.append(inner).append("type(errors, ").append(path).append(", ").append(property)
+                                .append(", kind, ").append(literal(expectedType)).append(");\n");
+                    }
+                    if (schema.has("format") && !(shape == Shape.INTEGER_OR_STRING && INTEGER_FORMATS.contains(schema.get("format").asText()))) {
+                        throw new IllegalStateException("Unsupported format at " + location + ": " + schema.get("format"));
+                    }
+                    if (schema.has("enum") && !(shape == Shape.ENUM && coversEnum((Class<?>) type, schema.get("enum")))) {
+                        scalar.append(inner).append("enumeration(errors, ").append(path).append(", ").append(property)
+                                .append(", kind, ").append(shape == Shape.ENUM && element ? variable + " == null ? null : " + value : value)
+                                .append(", ").append(enumConstant(schema.get("enum"))).append(");\n");
+                    }
+                    if (shape != Shape.ENUM) {
+                        for (String keyword : List.of("minLength", "maxLength")) {
+                            if (schema.has(keyword)) {
+                                scalar.append(inner).append(keyword).append("(errors, ").append(path).append(", ").append(property)
+                                        .append(", kind, ").append(value).append(", ").append(integer(schema, keyword, location)).append(");\n");
+                            }
+                        }
+                        if (schema.has("pattern")) {
+                            scalar.append(inner).append("pattern(errors, ").append(path).append(", ").append(property)
+                                    .append(", kind, ").append(value).append(", ").append(patternConstant(schema.get("pattern").asText())).append(");\n");
+                        }
+                    }
+                    if (shape == Shape.INTEGER_OR_STRING) {
+                        for (String keyword : List.of("minimum", "maximum")) {
+                            if (schema.has(keyword)) {
+                                scalar.append(inner).append(keyword).append("(errors, ").append(path).append(", ").append(property)
+                                        .append(", kind, ").append(value).append(", ").append(integer(schema, keyword, location)).append("L);\n");
+                            }
+                        }
+                    }
+                    if (kind.startsWith("Kind.")) {
+                        out.append(scalar.toString().replace(", kind, ", ", " + kind + ", "));
+                    } else if (!scalar.isEmpty()) {
+                        out.append(inner).append("Kind kind = ").append(kind).append(";\n").append(scalar);
+                    }
+                }
+                case LIST -> {
+                    checkKeywords(schema, location, Set.of("type", "items", "minItems", "maxItems"));
+                    staticType(out, inner, path, property, variable, "array", expectedType);
+                    for (String keyword : List.of("minItems", "maxItems")) {
+                        if (schema.has(keyword)) {
+                            out.append(inner).append(keyword).append("(errors, ").append(path).append(", ").append(property)
+                                    .append(", ").append(variable).append(", ").append(integer(schema, keyword, location)).append(");\n");
+                        }
+                    }
+                    if (schema.has("items")) {
+                        out.append(items((ParameterizedType) type, schema.get("items"), path, property, variable, location, inner));
+                    }
+                }
+                case MAP -> {
+                    checkKeywords(schema, location, Set.of("type"));
+                    staticType(out, inner, path, property, variable, "object", expectedType);
+                }
+                case BEAN -> {
+                    String method = method((Class<?>) type, schema, location);
+                    staticType(out, inner, path, property, variable, "object", expectedType);
+                    if (method != null && "null".equals(property)) {
+                        out.append(inner).append("if (").append(variable).append(" != null) {\n")
+                                .append(inner).append("    ").append(method).append('(').append(variable).append(", ").append(path).append(", errors);\n")
+                                .append(inner).append("}\n");
+                    } else if (method != null) {
+                        out.append(inner).append(method).append('(').append(variable).append(", ").append(path)
+                                .append(".property(").append(property).append("), errors);\n");
+                    }
+                }
+            }
+            return out.toString();
+        }
+
+        private String items(ParameterizedType listType, JsonNode schema, String path, String property,
+                             String variable, String location, String indent) {
+            Type elementType = listType.getActualTypeArguments()[0];
+            Shape shape = shape(elementType, null, location + "[]");
+            int level = depth++;
+            String index = "i" + (level == 0 ? "" : level);
+            String item = "item" + (level == 0 ? "" : level);
+            String itemPath = item + "Path";
+            String listPath = variable + "Path";
+            if (shape == Shape.LIST || shape == Shape.MAP) {
+                throw new IllegalStateException("Unsupported nested container at " + location + ": " + listType.getTypeName());
+            }
+            String checks = checks(elementType, shape, schema, itemPath, "null", item, location + "[]", indent);
+            depth--;
+            if (checks.isEmpty()) {
+                return "";
+            }
+            return indent + "SchemaPath " + listPath + " = " + path + ".property(" + property + ");\n"
+                    + indent + "for (int " + index + " = 0; " + index + " < " + variable + ".size(); " + index + "++) {\n"
+                    + indent + "    " + javaType(elementType) + " " + item + " = " + variable + ".get(" + index + ");\n"
+                    + indent + "    SchemaPath " + itemPath + " = " + listPath + ".index(" + index + ");\n"
+                    + checks
+                    + indent + "}\n";
+        }
+
+        private void staticType(StringBuilder out, String indent, String path, String property, String variable,
+                                String actual, String expected) {
+            if (expected == null) {
+                return;
+            }
+            if ("null".equals(property)) {
+                out.append(indent).append("type(errors, ").append(path).append(", null, ").append(variable)
+                        .append(" == null ? Kind.NULL : Kind.").append(actual.toUpperCase()).append(", ")
+                        .append(literal(expected)).append(");\n");
+            } else if (!actual.equals(expected)) {
+                out.append(indent).append("type(errors, ").append(path).append(", ").append(property)
+                        .append(", Kind.").append(actual.toUpperCase()).append(", ").append(literal(expected)).append(");\n");
+            }
+        }
+
+        private Map<String, Property> properties(Class<?> type) {
+            Map<String, Property> properties = new LinkedHashMap<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                JsonProperty jsonProperty = field.getAnnotation(JsonProperty.class);
+                String jsonName = jsonProperty != null && !jsonProperty.value().isEmpty() ? jsonProperty.value() : field.getName();
+                String getter = "get" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+                try {
+                    type.getMethod(getter);
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalStateException("No getter for " + type.getName() + "." + field.getName(), e);
+                }
+                properties.put(jsonName, new Property(jsonName, getter, field.getGenericType(),
+                        shape(field.getGenericType(), field, type.getName() + "." + field.getName())));
+            }
+            return properties;
+        }
+
+        private Shape shape(Type type, Field field, String location) {
+            JsonSerialize serialize = field == null ? null : field.getAnnotation(JsonSerialize.class);
+            if (serialize != null) {
+                if (type == String.class && serialize.using() == ExtendedIntegerSerializer.class) {
+                    return Shape.INTEGER_OR_STRING;
+                }
+                throw new IllegalStateException("Unsupported serializer at " + location + ": " + serialize.using().getName());
+            }
+            if (type == String.class) {
+                return Shape.STRING;
+            }
+            if (type instanceof ParameterizedType parameterized && parameterized.getRawType() == List.class) {
+                return Shape.LIST;
+            }
+            if (type instanceof ParameterizedType parameterized && parameterized.getRawType() == Map.class) {
+                return Shape.MAP;
+            }
+            if (type instanceof Class<?> cls && cls.isEnum()) {
+                return Shape.ENUM;
+            }
+            if (type instanceof Class<?> cls && !cls.isPrimitive() && !cls.getName().startsWith("java.")) {
+                return Shape.BEAN;
+            }
+            throw new IllegalStateException("Unsupported property type at " + location + ": " + type.getTypeName());
+        }
+
+        private static String presence(Shape shape, String value) {
+            return switch (shape) {
+                case STRING, LIST, MAP -> "present(" + value + ")";
+                default -> value + " != null";
+            };
+        }
+
+        private static String absence(Shape shape, String value) {
+            return switch (shape) {
+                case STRING, LIST, MAP -> "!present(" + value + ")";
+                default -> value + " == null";
+            };
+        }
+
+        private String javaType(Type type) {
+            if (type instanceof ParameterizedType parameterized) {
+                return ((Class<?>) parameterized.getRawType()).getSimpleName() + Arrays.stream(parameterized.getActualTypeArguments())
+                        .map(this::javaType)
+                        .collect(Collectors.joining(", ", "<", ">"));
+            }
+            return typeName((Class<?>) type);
+        }
+
+        private String typeName(Class<?> type) {
+            if (type.getName().startsWith("java.lang.")) {
+                return type.getSimpleName();
+            }
+            Class<?> topLevel = type;
+            while (topLevel.getEnclosingClass() != null) {
+                topLevel = topLevel.getEnclosingClass();
+            }
+            imports.add(topLevel);
+            String canonical = type.getCanonicalName();
+            return canonical.substring(topLevel.getPackageName().length() + 1);
+        }
+
+        private String enumConstant(JsonNode values) {
+            List<String> strings = new ArrayList<>();
+            List<String> integers = new ArrayList<>();
+            List<String> text = new ArrayList<>();
+            for (JsonNode value : values) {
+                if (value.isTextual()) {
+                    strings.add(literal(value.asText()));
+                } else if (value.canConvertToInt() && value.isIntegralNumber()) {
+                    integers.add(value.asText());
+                } else {
+                    throw new IllegalStateException("Unsupported enum value: " + value);
+                }
+                text.add(value.asText());
+            }
+            return constant("ENUM_", "new SchemaEnum(" + literal(text.stream().collect(Collectors.joining(", ", "[", "]")))
+                    + ", Set.of(" + String.join(", ", strings) + "), Set.of(" + String.join(", ", integers) + "))");
+        }
+
+        private String patternConstant(String pattern) {
+            return constant("PATTERN_", "Pattern.compile(" + literal(pattern) + ")");
+        }
+
+        private String constant(String prefix, String initializer) {
+            for (Map.Entry<String, String> entry : constants.entrySet()) {
+                if (entry.getValue().equals(initializer)) {
+                    return entry.getKey();
+                }
+            }
+            String name = prefix + constants.keySet().stream().filter(n -> n.startsWith(prefix)).count();
+            constants.put(name, initializer);
+            return name;
+        }
+
+        private static boolean coversEnum(Class<?> enumType, JsonNode values) {
+            Set<String> allowed = new HashSet<>();
+            values.forEach(value -> allowed.add(value.asText()));
+            return Arrays.stream(enumType.getEnumConstants()).allMatch(constant -> allowed.contains(((Enum<?>) constant).name()));
+        }
+
+        private static long integer(JsonNode schema, String keyword, String location) {
+            JsonNode value = schema.get(keyword);
+            if (!value.isIntegralNumber()) {
+                throw new IllegalStateException("Unsupported " + keyword + " at " + location + ": " + value);
+            }
+            return value.asLong();
+        }
+
+        /**
+         * Schema with annotations removed, so locations that differ only in descriptions share a method.
+         */
+        private static JsonNode withoutIgnoredKeywords(JsonNode schema) {
+            JsonNode copy = schema.deepCopy();
+            List<JsonNode> pending = new ArrayList<>(List.of(copy));
+            while (!pending.isEmpty()) {
+                JsonNode node = pending.removeLast();
+                if (node instanceof ObjectNode object) {
+                    object.remove(IGNORED_KEYWORDS);
+                }
+                node.forEach(pending::add);
+            }
+            return copy;
+        }
+
+        private static void checkKeywords(JsonNode schema, String location, Set<String> allowed) {
+            schema.fieldNames().forEachRemaining(keyword -> {
+                if (IGNORED_KEYWORDS.contains(keyword)) {
+                    return;
+                }
+                if (!SUPPORTED_KEYWORDS.contains(keyword) || !allowed.contains(keyword)) {
+                    throw new IllegalStateException("Unsupported schema keyword at " + location + ": " + keyword);
+                }
+            });
+        }
+
+        private static String literal(String value) {
+            StringBuilder out = new StringBuilder("\"");
+            for (char c : value.toCharArray()) {
+                switch (c) {
+                    case '"' -> out.append("\\\"");
+                    case '\\' -> out.append("\\\\");
+                    case '\n' -> out.append("\\n");
+                    case '\r' -> out.append("\\r");
+                    case '\t' -> out.append("\\t");
+                    default -> {
+                        if (c < 0x20 || c > 0x7e) {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                    }
+                }
+            }
+            return out.append('"').toString();
+        }
+    }
+
+    private TypedSchemaValidatorGenerator() {}
+}
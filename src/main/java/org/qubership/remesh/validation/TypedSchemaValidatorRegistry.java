@@ -0,0 +1,38 @@
+package org.qubership.remesh.validation;
+
+import org.qubership.remesh.handler.Resource;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+public final class TypedSchemaValidatorRegistry {
+    private static final Map<Class<?>, TypedSchemaValidator<?>> VALIDATORS = loadValidators();
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Resource> TypedSchemaValidator<T> get(T resource, String schemaFileName) {
+        TypedSchemaValidator<?> validator = VALIDATORS.get(resource.getClass());
+        if (validator == null || !validator.schemaFileName().equals(schemaFileName)) {
+            return null;
+        }
+        return (TypedSchemaValidator<T>) validator;
+    }
+
+    private static Map<Class<?>, TypedSchemaValidator<?>> loadValidators() {
+        Map<Class<?>, TypedSchemaValidator<?>> result = new HashMap<>();
+
+        for (TypedSchemaValidator<?> validator : ServiceLoader.load(TypedSchemaValidator.class)) {
+            if (result.putIfAbsent(validator.resourceType(), validator) != null) {
+                throw new IllegalStateException(
+                        "Duplicate TypedSchemaValidator for type: " + validator.resourceType().getName() +
+                        " (" + validator.getClass().getName() + ")"
+                );
+            }
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    private TypedSchemaValidatorRegistry() {}
+}
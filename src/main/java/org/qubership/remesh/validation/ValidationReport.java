@@ -0,0 +1,64 @@
+package org.qubership.remesh.validation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Validation results of a run, ordered by file, fragment and resource position.
+ */
+@Slf4j
+public class ValidationReport {
+    private static final Comparator<Issue> ORDER = Comparator.comparing(Issue::file)
+            .thenComparingInt(Issue::fragment)
+            .thenComparingInt(Issue::index);
+
+    public static final ValidationReport EMPTY = new ValidationReport(0, List.of());
+
+    private final int validated;
+    private final List<Issue> issues;
+
+    public record Issue(Path file, int fragment, int index, String kind, List<String> errors) {
+    }
+
+    public ValidationReport(int validated, List<Issue> issues) {
+        this.validated = validated;
+        this.issues = issues.stream().sorted(ORDER).toList();
+    }
+
+    public int getValidated() {
+        return validated;
+    }
+
+    public List<Issue> getIssues() {
+        return issues;
+    }
+
+    public boolean isValid() {
+        return issues.isEmpty();
+    }
+
+    public void log() {
+        if (validated == 0) {
+            return;
+        }
+        if (issues.isEmpty()) {
+            log.info("Validation: all {} resources are valid", validated);
+            return;
+        }
+        StringBuilder sb = new StringBuilder("Validation failed for ")
+                .append(issues.size()).append(" of ").append(validated).append(" resources:\n");
+        for (Issue issue : issues) {
+            sb.append(" - ").append(issue.file())
+                    .append(", fragment ").append(issue.fragment())
+                    .append(", resource ").append(issue.index())
+                    .append(" (").append(issue.kind()).append("):\n");
+            for (String error : issue.errors()) {
+                sb.append("    - ").append(error).append('\n');
+            }
+        }
+        log.error(sb.toString());
+    }
+}
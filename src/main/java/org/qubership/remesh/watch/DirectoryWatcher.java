@@ -0,0 +1,125 @@
+package org.qubership.remesh.watch;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Watches a directory tree and hands out created or modified files in debounced batches. {@link WatchService}
+ * only watches single directories, so every subdirectory is registered, including ones created later.
+ */
+@Slf4j
+public class DirectoryWatcher implements Closeable {
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Predicate<Path> filter;
+    private final Path excluded;
+    private final long debounceNanos;
+
+    /**
+     * @param excluded subtree that is never registered, typically the output dir; may be {@code null}
+     */
+    public DirectoryWatcher(Path root, Path excluded, Duration debounce, Predicate<Path> filter) throws IOException {
+        this.watchService = root.getFileSystem().newWatchService();
+        this.filter = filter;
+        this.excluded = excluded != null ? excluded.toAbsolutePath().normalize() : null;
+        this.debounceNanos = debounce.toNanos();
+        registerTree(root, new TreeSet<>());
+    }
+
+    /**
+     * Blocks until at least one matching file changed, then keeps collecting until no event arrived for the
+     * debounce interval, so an editor's save burst (truncate, write, rename) becomes one batch.
+     *
+     * @return changed files in path order, each once
+     */
+    public List<Path> awaitChanges() throws InterruptedException {
+        Set<Path> changed = new TreeSet<>();
+        while (changed.isEmpty()) {
+            collect(watchService.take(), changed);
+            WatchKey key;
+            while ((key = watchService.poll(debounceNanos, TimeUnit.NANOSECONDS)) != null) {
+                collect(key, changed);
+            }
+        }
+        return new ArrayList<>(changed);
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were dropped; rescan what is registered rather than miss an edit.
+                log.warn("Watch events overflowed in '{}', rescanning", directory);
+                directories.values().forEach(dir -> addFiles(dir, changed));
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    // Files may have landed in the new directory before it was registered.
+                    registerTree(path, changed);
+                }
+            } else if (filter.test(path) && Files.isRegularFile(path)) {
+                changed.add(path);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    private void registerTree(Path root, Set<Path> changed) {
+        try (Stream<Path> stream = Files.walk(root)) {
+            stream.filter(path -> Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS))
+                    .filter(path -> excluded == null || !path.toAbsolutePath().normalize().startsWith(excluded))
+                    .forEach(directory -> {
+                        register(directory);
+                        addFiles(directory, changed);
+                    });
+        } catch (IOException e) {
+            log.warn("Cannot watch '{}'. Cause: {}", root, e.getMessage());
+        }
+    }
+
+    private void register(Path directory) {
+        try {
+            WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            directories.put(key, directory);
+        } catch (IOException e) {
+            log.warn("Cannot watch '{}'. Cause: {}", directory, e.getMessage());
+        }
+    }
+
+    private void addFiles(Path directory, Set<Path> changed) {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(Files::isRegularFile).filter(filter).forEach(changed::add);
+        } catch (IOException e) {
+            log.warn("Cannot list '{}'. Cause: {}", directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+#!/bin/sh
+# Runs ${project.build.finalName}.jar with the AppCDS archive recorded at build time, when present and usable by this JVM.
+dir=$(cd "$(dirname "$0")" && pwd)
+java="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+if [ -f "$dir/${project.build.finalName}.jsa" ]; then
+    exec "$java" -XX:SharedArchiveFile="$dir/${project.build.finalName}.jsa" -Xlog:cds=off -Xlog:cds+dynamic=off \
+        -jar "$dir/${project.build.finalName}.jar" "$@"
+fi
+exec "$java" -jar "$dir/${project.build.finalName}.jar" "$@"
@@ -0,0 +1,66 @@
+package org.qubership.remesh;
+
+import org.junit.jupiter.api.Test;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Also runs as the native image smoke test (-Pnative), so it exercises the reflective Jackson paths end to end.
+class TransformCliTest {
+    private static final String ROUTES = """
+            apiVersion: core.netcracker.com/v1
+            kind: Mesh
+            subKind: RouteConfiguration
+            metadata:
+              name: demo
+              namespace: ns
+            spec:
+              virtualServices:
+                - name: demo
+                  hosts: ["demo"]
+                  routeConfiguration:
+                    routes:
+                      - destination:
+                          cluster: demo
+                          endpoint: http://demo:8080
+                        rules:
+                          - match:
+                              prefix: /v1
+            """;
+
+    @Test
+    void convertsRouteWithBackendPort() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-cli");
+        Files.writeString(dir.resolve("routes.yaml"), ROUTES);
+        Path out = Files.createTempDirectory("remesh-cli-out");
+
+        int exitCode = new CommandLine(new TransformCli()).execute("--dir", dir.toString(), "--out", out.toString());
+
+        assertEquals(0, exitCode);
+        String output = Files.readString(out.resolve("routes.yaml"));
+        assertTrue(output.contains("kind: \"HTTPRoute\""), output);
+        assertTrue(output.contains("port: 8080"), output);
+    }
+
+    @Test
+    void exitsWithErrorWhenFileFailsToConvert() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-cli");
+        Files.writeString(dir.resolve("routes.yaml"), ROUTES + """
+                                  headerMatchers:
+                                    - name: X-Role
+                                      safeRegexMatch: "^(?!guest).*$"
+                """);
+        Path out = Files.createTempDirectory("remesh-cli-out");
+
+        int exitCode = new CommandLine(new TransformCli()).execute("--dir", dir.toString(), "--out", out.toString());
+
+        assertEquals(1, exitCode);
+        assertFalse(Files.exists(out.resolve("routes.yaml")));
+    }
+}
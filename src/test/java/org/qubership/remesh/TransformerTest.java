@@ -4,18 +4,30 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.qubership.remesh.handler.Resource;
+import org.qubership.remesh.handler.ConversionContext;
 import org.qubership.remesh.handler.MeshResourceRouter;
+import org.qubership.remesh.output.InPlaceOutput;
+import org.qubership.remesh.output.OutputTarget;
+import org.qubership.remesh.serialization.TemplatedYaml;
 import org.qubership.remesh.serialization.YamlPreprocessor;
+import org.qubership.remesh.stats.RunStats;
 import org.qubership.remesh.util.ObjectMapperProvider;
 import org.qubership.remesh.validation.ResourceValidator;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TransformerTest {
@@ -30,12 +42,8 @@ class TransformerTest {
 
         YamlPreprocessor preprocessor = new YamlPreprocessor(mapper) {
             @Override
-            public JsonNode readAsJsonNode(String rawDoc) {
-                try {
-                    return mapper.readTree("apiVersion: core.netcracker.com/v1\nkind: Mesh\nsubKind: Demo");
-                } catch (Exception e) {
-                    return null;
-                }
+            public TemplatedYaml preprocessYaml(String yaml) {
+                return new TemplatedYaml("apiVersion: core.netcracker.com/v1\nkind: Mesh\nsubKind: Demo", List.of());
             }
         };
 
@@ -53,14 +61,411 @@ class TransformerTest {
         String content = Files.readString(output);
         assertTrue(content.contains("DemoResource"));
         assertEquals(1, router.handledDocuments);
-        assertEquals(1, validator.validatedResources);
+        assertEquals(1, validator.validatedResources.get());
+    }
+
+    @Test
+    void processesFilesInParallel() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-test");
+        for (int i = 0; i < 20; i++) {
+            Path subDir = Files.createDirectories(dir.resolve("chart-" + (i % 3)));
+            Files.writeString(subDir.resolve("resource-" + i + ".yaml"), "apiVersion: demo/v1\nkind: Mesh\n".repeat(i + 1));
+        }
+
+        ObjectMapper mapper = ObjectMapperProvider.getMapper();
+        AtomicInteger routed = new AtomicInteger();
+        MeshResourceRouter router = new MeshResourceRouter() {
+            @Override
+            public List<Resource> route(TemplatedYaml document, RunStats stats, ConversionContext context) {
+                routed.incrementAndGet();
+                return List.of(new DemoResource());
+            }
+        };
+
+        TransformerService transformerService = new TransformerService(new YamlPreprocessor(mapper), router, new NoopValidator(), mapper);
+
+        TransformOptions options = new TransformOptions();
+        options.setThreads(4);
+        transformerService.transform(dir, options);
+
+        assertEquals(20, routed.get());
+        for (int i = 0; i < 20; i++) {
+            Path output = dir.resolve("chart-" + (i % 3)).resolve("resource-" + i + ".yaml");
+            assertTrue(Files.readString(output).contains("DemoResource"));
+            assertTrue(Files.exists(output.resolveSibling("resource-" + i + ".yaml_old")));
+        }
+    }
+
+    @Test
+    void processesFilesInStagedPipeline() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-test");
+        for (int i = 0; i < 10; i++) {
+            Files.writeString(dir.resolve("resource-" + i + ".yaml"), "apiVersion: demo/v1\nkind: Mesh\n---\nkind: Other\n");
+        }
+
+        ObjectMapper mapper = ObjectMapperProvider.getMapper();
+        AtomicInteger routed = new AtomicInteger();
+        MeshResourceRouter router = new MeshResourceRouter() {
+            @Override
+            public List<Resource> route(TemplatedYaml document, RunStats stats, ConversionContext context) {
+                routed.incrementAndGet();
+                return List.of(new DemoResource());
+            }
+        };
+        NoopValidator validator = new NoopValidator();
+
+        TransformerService transformerService = new TransformerService(new YamlPreprocessor(mapper), router, validator, mapper);
+
+        TransformOptions options = new TransformOptions();
+        options.setPipeline(true);
+        options.setValidate(true);
+        options.setThreads(2);
+        options.setQueueCapacity(2);
+        transformerService.transform(dir, options);
+
+        assertEquals(20, routed.get());
+        assertEquals(20, validator.validatedResources.get());
+        for (int i = 0; i < 10; i++) {
+            Path output = dir.resolve("resource-" + i + ".yaml");
+            assertTrue(Files.readString(output).contains("DemoResource"));
+            assertTrue(Files.exists(dir.resolve("resource-" + i + ".yaml_old")));
+        }
+    }
+
+    @Test
+    void reportsEveryFileWhenPipelineWriteStageThrows() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-test");
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            files.add(Files.writeString(dir.resolve("resource-" + i + ".yaml"), "apiVersion: demo/v1\nkind: Mesh\n"));
+        }
+        ObjectMapper mapper = ObjectMapperProvider.getMapper();
+        MeshResourceRouter router = new MeshResourceRouter() {
+            @Override
+            public List<Resource> route(TemplatedYaml document, RunStats stats, ConversionContext context) {
+                return List.of(new DemoResource());
+            }
+        };
+        TransformerService transformerService = new TransformerService(new YamlPreprocessor(mapper), router, null, mapper) {
+            @Override
+            FileJob writeStage(FileJob job, OutputTarget output, RunStats stats) {
+                if (job.getFile().getFileName().toString().equals("resource-1.yaml")) {
+                    throw new IllegalStateException("disk full");
+                }
+                return super.writeStage(job, output, stats);
+            }
+        };
+        TransformOptions options = new TransformOptions();
+        options.setPipeline(true);
+        options.setQueueCapacity(1);
+
+        List<FileReport> reports = transformerService.processPipeline(files, options, new InPlaceOutput(), null,
+                RunStats.DISABLED, ConversionContext.standalone());
+
+        assertEquals(files, reports.stream().map(FileReport::getFile).toList());
+        assertEquals(List.of(false, true, false, false, false), reports.stream().map(FileReport::isFailed).toList());
+        assertTrue(Files.readString(files.get(4)).contains("DemoResource"));
+    }
+
+    @Test
+    void incrementalRunSkipsUnchangedFiles() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-test");
+        Files.writeString(dir.resolve("first.yaml"), "apiVersion: demo/v1\nkind: Mesh");
+        Files.writeString(dir.resolve("second.yaml"), "apiVersion: demo/v1\nkind: Mesh");
+
+        ObjectMapper mapper = ObjectMapperProvider.getMapper();
+        RecordingRouter router = new RecordingRouter();
+        TransformerService transformerService = new TransformerService(new YamlPreprocessor(mapper), router, new NoopValidator(), mapper);
+
+        TransformOptions options = new TransformOptions();
+        options.setIncremental(true);
+        transformerService.transform(dir, options);
+        assertEquals(2, router.handledDocuments);
+
+        transformerService.transform(dir, options);
+        assertEquals(2, router.handledDocuments);
+
+        Files.delete(dir.resolve("second.yaml_old"));
+        Files.writeString(dir.resolve("second.yaml"), "apiVersion: demo/v1\nkind: Mesh");
+        transformerService.transform(dir, options);
+        assertEquals(3, router.handledDocuments);
+    }
+
+    @Test
+    void incrementalRunReconvertsWhenOutputOptionsChange() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-test");
+        Files.writeString(dir.resolve("resource.yaml"), "apiVersion: demo/v1\nkind: Mesh");
+
+        ObjectMapper mapper = ObjectMapperProvider.getMapper();
+        RecordingRouter router = new RecordingRouter();
+        TransformerService transformerService = new TransformerService(new YamlPreprocessor(mapper), router, new NoopValidator(), mapper);
+
+        TransformOptions options = new TransformOptions();
+        options.setOutDir(dir.resolve("converted"));
+        options.setIncremental(true);
+        transformerService.transform(dir, options);
+        transformerService.transform(dir, options);
+        assertEquals(1, router.handledDocuments);
+
+        options.setPassthrough(true);
+        transformerService.transform(dir, options);
+        assertEquals(2, router.handledDocuments);
+
+        options.setRegexProgramBudget(options.getRegexProgramBudget() * 2);
+        transformerService.transform(dir, options);
+        transformerService.transform(dir, options);
+        assertEquals(3, router.handledDocuments);
+    }
+
+    @Test
+    void writesToMirroredOutputDirWithoutTouchingInput() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-test");
+        Path input = Files.writeString(Files.createDirectories(dir.resolve("chart")).resolve("resource.yaml"), "apiVersion: demo/v1\nkind: Mesh");
+        Path out = dir.resolve("converted");
+
+        ObjectMapper mapper = ObjectMapperProvider.getMapper();
+        RecordingRouter router = new RecordingRouter();
+        TransformerService transformerService = new TransformerService(new YamlPreprocessor(mapper), router, new NoopValidator(), mapper);
+
+        TransformOptions options = new TransformOptions();
+        options.setOutDir(out);
+        options.setIncremental(true);
+        transformerService.transform(dir, options);
+        transformerService.transform(dir, options);
+
+        assertEquals(1, router.handledDocuments);
+        assertEquals("apiVersion: demo/v1\nkind: Mesh", Files.readString(input));
+        assertTrue(Files.notExists(dir.resolve("chart/resource.yaml_old")));
+        assertTrue(Files.notExists(dir.resolve(".remesh-manifest.json")));
+        assertTrue(Files.readString(out.resolve("chart/resource.yaml")).contains("DemoResource"));
+        assertTrue(Files.exists(out.resolve(".remesh-manifest.json")));
+    }
+
+    @Test
+    void passthroughKeepsNonMeshDocumentsByteForByte() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-test");
+        String service = "apiVersion: v1\nkind: Service\nmetadata:\n  name: {{ .Values.NAME }}   # keep me\n";
+        String deployment = "kind: Deployment\nspec:\n  replicas: 2";
+        Files.writeString(dir.resolve("chart.yaml"), service + "---\napiVersion: core.netcracker.com/v1\nkind: Mesh\nsubKind: Demo\n---\n" + deployment);
+
+        ObjectMapper mapper = ObjectMapperProvider.getMapper();
+        RecordingRouter router = new RecordingRouter();
+        TransformerService transformerService = new TransformerService(new YamlPreprocessor(mapper), router, new NoopValidator(), mapper);
+
+        TransformOptions options = new TransformOptions();
+        options.setPassthrough(true);
+        transformerService.transform(dir, options);
+
+        assertEquals(1, router.handledDocuments);
+        String content = Files.readString(dir.resolve("chart.yaml"));
+        assertEquals("---\n" + service + "---\n" + "kind: \"DemoResource\"\n" + "---\n" + deployment + "\n",
+                content.replace("apiVersion: \"demo/v1\"\n", ""));
+    }
+
+    @Test
+    void failsFileInsteadOfDroppingUnsupportedHeaderRegex() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-test");
+        Files.writeString(dir.resolve("routes.yaml"), """
+                apiVersion: core.netcracker.com/v1
+                kind: Mesh
+                subKind: RouteConfiguration
+                metadata:
+                  name: routes
+                spec:
+                  virtualServices:
+                    - name: svc
+                      routeConfiguration:
+                        routes:
+                          - destination:
+                              cluster: svc
+                              endpoint: http://svc:8080
+                            rules:
+                              - match:
+                                  prefix: /admin
+                                  headerMatchers:
+                                    - name: X-Role
+                                      safeRegexMatch: "^(?!guest).*$"
+                """);
+        Path out = dir.resolve("converted");
+
+        TransformOptions options = new TransformOptions();
+        options.setOutDir(out);
+        TransformResult result = new TransformerService().transform(dir, options);
+
+        assertEquals(1, result.failedFiles());
+        assertEquals(0, result.resources());
+        assertTrue(Files.notExists(out.resolve("routes.yaml")));
+    }
+
+    @Test
+    void reportsInvalidResourcesAfterWriting() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-test");
+        Files.writeString(dir.resolve("a.yaml"), "apiVersion: demo/v1\nkind: Mesh\n---\napiVersion: demo/v1\nkind: Mesh\n");
+        Files.writeString(dir.resolve("b.yaml"), "apiVersion: demo/v1\nkind: Mesh\n");
+
+        ObjectMapper mapper = ObjectMapperProvider.getMapper();
+        ResourceValidator validator = new ResourceValidator() {
+            @Override
+            public List<String> errors(Resource resource) {
+                return List.of("$.spec: $.spec: is missing but it is required");
+            }
+        };
+        TransformerService transformerService = new TransformerService(new YamlPreprocessor(mapper), new RecordingRouter(), validator, mapper);
+
+        TransformOptions options = new TransformOptions();
+        options.setValidate(true);
+        options.setThreads(2);
+        TransformResult result = transformerService.transform(dir, options);
+
+        assertEquals(3, result.invalidResources());
+        assertEquals(3, result.resources());
+        assertEquals(0, result.failedFiles());
+        assertTrue(Files.readString(dir.resolve("a.yaml")).contains("DemoResource"));
+    }
+
+    @Test
+    void writesStageStatsForEveryMode() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-test");
+        Files.writeString(dir.resolve("a.yaml"), "apiVersion: demo/v1\nkind: Mesh\n---\napiVersion: demo/v1\nkind: Mesh\n");
+        Files.writeString(dir.resolve("b.yaml"), "apiVersion: demo/v1\nkind: Mesh\n");
+
+        ObjectMapper mapper = ObjectMapperProvider.getMapper();
+        TransformerService transformerService = new TransformerService(new YamlPreprocessor(mapper), new RecordingRouter(), new NoopValidator(), mapper);
+
+        for (boolean pipeline : new boolean[]{false, true}) {
+            TransformOptions options = new TransformOptions();
+            Path out = Files.createTempDirectory("remesh-out");
+            options.setOutDir(out);
+            options.setPipeline(pipeline);
+            options.setValidate(true);
+            options.setStatsFile(out.resolve("stats.json"));
+            options.setOpenMetricsFile(out.resolve("stats.prom"));
+            transformerService.transform(dir, options);
+
+            JsonNode stats = new ObjectMapper().readTree(options.getStatsFile().toFile());
+            assertEquals(2, stats.get("files").asInt());
+            assertEquals(3, stats.get("fragments").asInt());
+            assertEquals(3, stats.get("resources").asInt());
+            assertEquals(2, stats.get("slowestFiles").size());
+            List<String> stages = new ArrayList<>();
+            stats.get("stages").forEach(stage -> stages.add(stage.get("stage").asText()));
+            assertEquals(List.of("preprocess", "read", "serialize", "split", "validate", "write"), stages);
+            assertTrue(Files.readString(options.getOpenMetricsFile()).endsWith("# EOF\n"));
+        }
+    }
+
+    @Test
+    void watchReconvertsCreatedAndModifiedFiles() throws Exception {
+        Path dir = Files.createTempDirectory("remesh-test");
+        Path first = Files.writeString(dir.resolve("first.yaml"), "apiVersion: demo/v1\nkind: Mesh");
+        Path out = dir.resolve("converted");
+
+        ObjectMapper mapper = ObjectMapperProvider.getMapper();
+        TransformerService transformerService = new TransformerService(new YamlPreprocessor(mapper), new RecordingRouter(), new NoopValidator(), mapper);
+
+        TransformOptions options = new TransformOptions();
+        options.setOutDir(out);
+        options.setDebounceMillis(20);
+        Thread watcher = new Thread(() -> {
+            try {
+                transformerService.watch(dir, options);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        watcher.start();
+        try {
+            awaitFile(out.resolve("first.yaml"));
+
+            Files.writeString(Files.createDirectories(dir.resolve("chart")).resolve("second.yaml"), "apiVersion: demo/v1\nkind: Mesh");
+            awaitFile(out.resolve("chart/second.yaml"));
+
+            Files.delete(out.resolve("first.yaml"));
+            Files.writeString(first, "apiVersion: demo/v1\nkind: Mesh\n---\napiVersion: demo/v1\nkind: Mesh");
+            awaitFile(out.resolve("first.yaml"));
+            assertEquals(2, Files.readString(out.resolve("first.yaml")).split("DemoResource", -1).length - 1);
+        } finally {
+            watcher.interrupt();
+            watcher.join(5000);
+        }
+        assertFalse(watcher.isAlive());
+    }
+
+    @Test
+    void streamConvertsMeshDocumentsAndCopiesOthers() throws IOException {
+        String service = "apiVersion: v1\nkind: Service\nmetadata:\n  name: svc   # keep me\n";
+        String stream = service + "---\napiVersion: core.netcracker.com/v1\nkind: Mesh\nsubKind: Demo\n---\nkind: ConfigMap";
+
+        ObjectMapper mapper = ObjectMapperProvider.getMapper();
+        RecordingRouter router = new RecordingRouter();
+        TransformerService transformerService = new TransformerService(new YamlPreprocessor(mapper), router, new NoopValidator(), mapper);
+
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+        TransformResult result = transformerService.convertStream(
+                new ByteArrayInputStream(stream.getBytes(StandardCharsets.UTF_8)), out, true);
+
+        assertEquals(1, router.handledDocuments);
+        assertEquals(3, result.fragments());
+        assertEquals(1, result.resources());
+        assertTrue(flushes.get() >= 3);
+        assertEquals("---\n" + service + "---\n" + "kind: \"DemoResource\"\n" + "---\nkind: ConfigMap\n",
+                out.toString(StandardCharsets.UTF_8).replace("apiVersion: \"demo/v1\"\n", ""));
+    }
+
+    @Test
+    void routesRenderedStreamDocumentsWithoutTemplatePreprocessing() throws IOException {
+        // a line holding only braces would be blanked as template control flow by the preprocessor
+        String stream = """
+                apiVersion: core.netcracker.com/v1
+                kind: Mesh
+                subKind: RouteConfiguration
+                metadata:
+                  name: >-
+                    {{ literal }}
+                  namespace: ns
+                spec:
+                  virtualServices:
+                    - name: svc
+                      hosts: ["svc"]
+                      routeConfiguration:
+                        routes:
+                          - destination:
+                              cluster: svc
+                              endpoint: http://svc:8080
+                            rules:
+                              - match: {prefix: /v1}
+                """;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        TransformResult result = new TransformerService().convertStream(
+                new ByteArrayInputStream(stream.getBytes(StandardCharsets.UTF_8)), out, false);
+
+        assertEquals(1, result.resources());
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("name: \"{{ literal }}-http-route\""),
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static void awaitFile(Path file) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (Files.notExists(file) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(Files.exists(file), "Not written: " + file);
     }
 
     private static class RecordingRouter extends MeshResourceRouter {
         private int handledDocuments = 0;
 
         @Override
-        public List<Resource> route(JsonNode node) {
+        public List<Resource> route(TemplatedYaml document, RunStats stats, ConversionContext context) {
             handledDocuments++;
             List<Resource> resources = new ArrayList<>();
             resources.add(new DemoResource());
@@ -69,11 +474,12 @@ class TransformerTest {
     }
 
     private static class NoopValidator extends ResourceValidator {
-        private int validatedResources = 0;
+        private final AtomicInteger validatedResources = new AtomicInteger();
 
         @Override
-        public void validateResource(Resource resource) {
-            validatedResources++;
+        public List<String> errors(Resource resource) {
+            validatedResources.incrementAndGet();
+            return List.of();
         }
     }
 
@@ -0,0 +1,182 @@
+package org.qubership.remesh.corpus;
+
+import lombok.Data;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Writes a synthetic Helm chart tree of Mesh {@code RouteConfiguration}s for scaling tests and benchmarks.
+ * Files are spread over {@code chart-N/templates} directories, and the same knobs and seed always give the same bytes.
+ * With {@code templateDensity} 0 the output is template-free, so it also converts and validates without Helm.
+ */
+@Data
+public class CorpusGenerator {
+    private static final String[] HEADERS = {"X-Tenant", "X-Version", "X-Request-Id", "X-Region", "Authorization", "X-Client"};
+
+    private int files = 100;
+    private int filesPerChart = 100;
+    private int fragmentsPerFile = 1;
+    // plain Kubernetes documents (ConfigMap, Service) added to each file next to the Mesh ones
+    private int plainFragmentsPerFile = 1;
+    private int virtualServices = 2;
+    private int routesPerVirtualService = 2;
+    private int rulesPerRoute = 4;
+    private int headerMatchersPerRule = 1;
+    // share of values (names, hosts, endpoints, header values, labels) written as Helm templates, 0 to 1
+    private double templateDensity = 0.3;
+    private long seed = 42;
+
+    /**
+     * @return total bytes written
+     */
+    public long generate(Path root) throws IOException {
+        Random random = new Random(seed);
+        long bytes = 0;
+        for (int file = 0; file < files; file++) {
+            Path templates = root.resolve("chart-" + file / filesPerChart).resolve("templates");
+            Files.createDirectories(templates);
+            Path path = templates.resolve("mesh-" + file + ".yaml");
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                writer.write(file(random, file));
+            }
+            bytes += Files.size(path);
+        }
+        return bytes;
+    }
+
+    String file(Random random, int file) {
+        StringBuilder yaml = new StringBuilder();
+        int documents = fragmentsPerFile + plainFragmentsPerFile;
+        int mesh = 0;
+        int plain = 0;
+        for (int document = 0; document < documents; document++) {
+            if (document > 0) {
+                yaml.append("---\n");
+            }
+            // plain documents are interleaved with the Mesh ones, as in a rendered chart
+            if (mesh == fragmentsPerFile || (document % 2 == 1 && plain < plainFragmentsPerFile)) {
+                plainDocument(yaml, random, file, plain++);
+            } else {
+                routeConfiguration(yaml, random, file, mesh++);
+            }
+        }
+        return yaml.toString();
+    }
+
+    private void routeConfiguration(StringBuilder yaml, Random random, int file, int fragment) {
+        String service = "svc-" + file + "-" + fragment;
+        yaml.append("apiVersion: core.netcracker.com/v1\n");
+        yaml.append("kind: Mesh\n");
+        yaml.append("subKind: RouteConfiguration\n");
+        yaml.append("metadata:\n");
+        yaml.append("  name: ").append(value(random, service, "SERVICE_NAME")).append("-mesh-routes\n");
+        yaml.append("  namespace: \"").append(value(random, "core-dev", "NAMESPACE")).append("\"\n");
+        yaml.append("  labels:\n");
+        if (templated(random)) {
+            yaml.append("    {{ include \"labels.common\" . | nindent 4 | trim }}\n");
+        }
+        yaml.append("    deployer.cleanup/allow: \"true\"\n");
+        yaml.append("spec:\n");
+        yaml.append("  gateways: [\"internal-gateway-service\", \"private-gateway-service\"]\n");
+        yaml.append("  virtualServices:\n");
+        for (int vs = 0; vs < virtualServices; vs++) {
+            String host = service + "-" + vs;
+            yaml.append("    - name: \"").append(value(random, host, "SERVICE_NAME")).append("\"\n");
+            yaml.append("      hosts: [\"").append(value(random, host, "SERVICE_NAME")).append("\"]\n");
+            yaml.append("      addHeaders:\n");
+            yaml.append("        - name: X-Mesh-Service\n");
+            yaml.append("          value: \"").append(host).append("\"\n");
+            if (templated(random)) {
+                yaml.append("        {{- if .Values.TRACING_ENABLED }}\n");
+                yaml.append("        - name: X-Trace\n");
+                yaml.append("          value: \"{{ .Values.TRACING_HOST }}\"\n");
+                yaml.append("        {{- end }}\n");
+            }
+            yaml.append("      routeConfiguration:\n");
+            yaml.append("        version: \"").append(value(random, "v1", "DEPLOYMENT_VERSION")).append("\"\n");
+            yaml.append("        routes:\n");
+            for (int route = 0; route < routesPerVirtualService; route++) {
+                String cluster = host + "-" + route;
+                yaml.append("          - destination:\n");
+                yaml.append("              cluster: \"").append(cluster).append("\"\n");
+                yaml.append("              endpoint: http://").append(value(random, cluster, "DEPLOYMENT_RESOURCE_NAME"))
+                        .append(':').append(templated(random) ? "{{ .Values.PORT }}" : String.valueOf(8080 + route)).append('\n');
+                yaml.append("            rules:\n");
+                for (int rule = 0; rule < rulesPerRoute; rule++) {
+                    rule(yaml, random, route, rule);
+                }
+            }
+        }
+    }
+
+    private void rule(StringBuilder yaml, Random random, int route, int rule) {
+        String resource = "/api/v" + (route + 1) + "/resource-" + rule;
+        yaml.append("              - match:\n");
+        switch (random.nextInt(3)) {
+            case 0 -> yaml.append("                  path: ").append(resource).append("/status\n");
+            case 1 -> yaml.append("                  regExp: ").append(resource).append("/[0-9]+\n");
+            default -> yaml.append("                  prefix: ").append(resource).append('\n');
+        }
+        if (headerMatchersPerRule > 0) {
+            yaml.append("                  headerMatchers:\n");
+            for (int matcher = 0; matcher < headerMatchersPerRule; matcher++) {
+                headerMatcher(yaml, random, HEADERS[(rule + matcher) % HEADERS.length]);
+            }
+        }
+        yaml.append("                allowed: ").append(random.nextInt(8) != 0).append('\n');
+        if (random.nextBoolean()) {
+            yaml.append("                prefixRewrite: /internal").append(resource).append('\n');
+        }
+        if (random.nextInt(4) == 0) {
+            yaml.append("                removeHeaders: [\"Cookie\"]\n");
+            yaml.append("                timeout: ").append(1000 * (1 + random.nextInt(60))).append('\n');
+        }
+    }
+
+    private void headerMatcher(StringBuilder yaml, Random random, String name) {
+        yaml.append("                    - name: ").append(name).append('\n');
+        switch (random.nextInt(5)) {
+            case 0 -> yaml.append("                      presentMatch: true\n");
+            case 1 -> yaml.append("                      prefixMatch: \"v").append(random.nextInt(3)).append("\"\n");
+            case 2 -> yaml.append("                      suffixMatch: \"-").append(random.nextInt(100)).append("\"\n");
+            case 3 -> yaml.append("                      safeRegexMatch: \"^tenant-[a-z]{").append(1 + random.nextInt(8)).append("}$\"\n");
+            default -> yaml.append("                      exactMatch: ").append(value(random, "tenant-" + random.nextInt(100), "TENANT")).append('\n');
+        }
+    }
+
+    private void plainDocument(StringBuilder yaml, Random random, int file, int index) {
+        String name = "plain-" + file + "-" + index;
+        if (index % 2 == 0) {
+            yaml.append("apiVersion: v1\n");
+            yaml.append("kind: Service\n");
+            yaml.append("metadata:\n");
+            yaml.append("  name: ").append(value(random, name, "SERVICE_NAME")).append('\n');
+            yaml.append("spec:\n");
+            yaml.append("  ports:\n");
+            yaml.append("    - name: web\n");
+            yaml.append("      port: 8080\n");
+            yaml.append("  selector:\n");
+            yaml.append("    name: ").append(name).append('\n');
+        } else {
+            yaml.append("apiVersion: v1\n");
+            yaml.append("kind: ConfigMap\n");
+            yaml.append("metadata:\n");
+            yaml.append("  name: ").append(value(random, name, "SERVICE_NAME")).append('\n');
+            yaml.append("data:\n");
+            yaml.append("  mode: \"").append(value(random, "default", "MODE")).append("\"\n");
+        }
+    }
+
+    private boolean templated(Random random) {
+        return templateDensity > 0 && random.nextDouble() < templateDensity;
+    }
+
+    private String value(Random random, String literal, String valueName) {
+        return templated(random) ? "{{ .Values." + valueName + " }}" : literal;
+    }
+}
@@ -0,0 +1,78 @@
+package org.qubership.remesh.corpus;
+
+import org.junit.jupiter.api.Test;
+import org.qubership.remesh.TransformOptions;
+import org.qubership.remesh.TransformResult;
+import org.qubership.remesh.TransformerService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CorpusGeneratorTest {
+
+    @Test
+    void generatesDeterministicFilesFromKnobs() {
+        CorpusGenerator generator = new CorpusGenerator();
+        generator.setFragmentsPerFile(3);
+        generator.setPlainFragmentsPerFile(2);
+        generator.setVirtualServices(2);
+        generator.setRoutesPerVirtualService(3);
+        generator.setRulesPerRoute(5);
+        generator.setHeaderMatchersPerRule(2);
+        generator.setTemplateDensity(0.5);
+
+        String file = generator.file(new Random(7), 0);
+
+        assertEquals(file, generator.file(new Random(7), 0));
+        assertNotEquals(file, generator.file(new Random(8), 0));
+        assertEquals(5, count(file, "apiVersion: "));
+        assertEquals(3, count(file, "subKind: RouteConfiguration\n"));
+        assertEquals(3 * 2 * 3, count(file, "- destination:\n"));
+        assertEquals(3 * 2 * 3 * 5, count(file, "- match:\n"));
+        assertEquals(3 * 2 * 3 * 5 * 2, count(file, "                    - name: "));
+        assertTrue(file.contains("{{ .Values."));
+
+        generator.setTemplateDensity(0);
+        assertEquals(0, count(generator.file(new Random(7), 0), "{{"));
+    }
+
+    @Test
+    void convertsAndValidatesGeneratedCorpus() throws IOException {
+        CorpusGenerator generator = new CorpusGenerator();
+        generator.setFiles(60);
+        generator.setFilesPerChart(25);
+        generator.setFragmentsPerFile(2);
+        generator.setTemplateDensity(0);
+        Path dir = Files.createTempDirectory("remesh-corpus");
+        generator.generate(dir);
+
+        TransformOptions options = new TransformOptions();
+        options.setOutDir(Files.createTempDirectory("remesh-out"));
+        options.setThreads(2);
+        options.setValidate(true);
+        TransformResult result = new TransformerService().transform(dir, options);
+
+        assertEquals(60, result.files());
+        assertEquals(0, result.failedFiles());
+        assertEquals(60 * 3, result.fragments());
+        assertTrue(result.resources() >= 60 * 2);
+        // the bundled HTTPRoute schema types ports as strings to allow placeholders, so literal ports are all it reports
+        assertTrue(result.issues().stream().flatMap(issue -> issue.errors().stream()).allMatch(error -> error.contains(".port:")),
+                () -> result.issues().toString());
+        assertTrue(Files.exists(options.getOutDir().resolve("chart-2/templates/mesh-59.yaml")));
+    }
+
+    private static int count(String text, String needle) {
+        int count = 0;
+        for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + needle.length())) {
+            count++;
+        }
+        return count;
+    }
+}
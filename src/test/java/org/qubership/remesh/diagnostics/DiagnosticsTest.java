@@ -0,0 +1,58 @@
+package org.qubership.remesh.diagnostics;
+
+import org.junit.jupiter.api.Test;
+import org.qubership.remesh.dto.RouteConfigurationYaml;
+import org.qubership.remesh.util.ObjectMapperProvider;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiagnosticsTest {
+
+    @Test
+    void countsUnknownPropertiesPerTypePropertyAndPathTemplate() throws Exception {
+        Diagnostics diagnostics = new Diagnostics();
+        ObjectMapperProvider.readerFor(RouteConfigurationYaml.class, diagnostics).readValue("""
+                spec:
+                  virtualServices:
+                    - name: a
+                      routeConfiguration:
+                        routes:
+                          - rules:
+                              - match: {prefix: /a}
+                                legacy: true
+                              - match: {prefix: /b}
+                                legacy: false
+                    - name: b
+                      bogus: 1
+                      routeConfiguration:
+                        routes:
+                          - rules:
+                              - match: {prefix: /c}
+                                legacy: true
+                """);
+
+        Diagnostics.Summary summary = diagnostics.drain();
+
+        assertEquals(List.of(
+                new Diagnostics.UnknownProperty("Rule", "legacy", "spec.virtualServices[*].routeConfiguration.routes[*].rules[*].legacy", 3),
+                new Diagnostics.UnknownProperty("VirtualService", "bogus", "spec.virtualServices[*].bogus", 1)
+        ), summary.unknownProperties());
+        assertTrue(diagnostics.drain().isEmpty());
+    }
+
+    @Test
+    void countsWarningsPerMessageAndSubject() {
+        Diagnostics diagnostics = new Diagnostics();
+        diagnostics.warn("Handler not found for kind", "Gateway");
+        diagnostics.warn("Handler not found for kind", "Gateway");
+        diagnostics.warn("Handler not found for kind", "Cluster");
+
+        assertEquals(List.of(
+                new Diagnostics.WarningCount("Handler not found for kind", "Gateway", 2),
+                new Diagnostics.WarningCount("Handler not found for kind", "Cluster", 1)
+        ), diagnostics.drain().warnings());
+    }
+}
@@ -0,0 +1,179 @@
+package org.qubership.remesh.handler;
+
+import org.junit.jupiter.api.Test;
+import org.qubership.remesh.diagnostics.Diagnostics;
+import org.qubership.remesh.dto.gatewayapi.HttpRoute;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HttpRouteRulesTest {
+
+    @Test
+    void mergesConsecutiveRulesWithSameFiltersAndBackends() {
+        List<HttpRoute.Rule> rules = List.of(
+                rule("/a", "svc-a", null),
+                rule("/b", "svc-a", null),
+                rule("/c", "svc-b", null),
+                rule("/d", "svc-a", null),
+                rule("/d", "svc-a", null));
+
+        List<HttpRoute.Rule> compacted = HttpRouteRules.compact(rules);
+
+        assertEquals(List.of(List.of("/a", "/b"), List.of("/c"), List.of("/d")), paths(compacted));
+        assertEquals("svc-b", compacted.get(1).getBackendRefs().getFirst().getName());
+    }
+
+    @Test
+    void keepsPrefixRewritesAndCatchAllRulesApart() {
+        HttpRoute.Rule catchAll = rule("/x", "svc-a", null);
+        catchAll.setMatches(new ArrayList<>());
+        List<HttpRoute.Rule> rules = List.of(
+                rule("/a", "svc-a", "/internal"),
+                rule("/b", "svc-a", "/internal"),
+                rule("/c", "svc-a", null),
+                catchAll,
+                rule("/d", "svc-a", null));
+
+        assertEquals(List.of(List.of("/a"), List.of("/b"), List.of("/c"), List.of(), List.of("/d")),
+                paths(HttpRouteRules.compact(rules)));
+    }
+
+    @Test
+    void startsNewRuleAtMatchLimit() {
+        List<HttpRoute.Rule> rules = new ArrayList<>();
+        for (int i = 0; i < HttpRouteRules.MAX_MATCHES_PER_RULE + 6; i++) {
+            rules.add(rule("/r" + i, "svc-a", null));
+        }
+
+        List<HttpRoute.Rule> compacted = HttpRouteRules.compact(rules);
+
+        assertEquals(2, compacted.size());
+        assertEquals(HttpRouteRules.MAX_MATCHES_PER_RULE, compacted.get(0).getMatches().size());
+        assertEquals(6, compacted.get(1).getMatches().size());
+        assertEquals("/r64", compacted.get(1).getMatches().getFirst().getPath().getValue());
+    }
+
+    @Test
+    void dropsDuplicateAndSafelyShadowedRules() {
+        List<HttpRoute.Rule> rules = List.of(
+                rule("/api", "svc-a", null),
+                rule("/x", "svc-b", null),
+                rule("/api", "svc-a", null),
+                exact(rule("/api/v1", "svc-a", null)),
+                rule("/api/v2/", "svc-a", null),
+                rule("/x", "svc-c", null),
+                rule("/apis", "svc-a", null));
+
+        assertEquals(List.of(List.of("/api"), List.of("/x"), List.of("/apis")),
+                paths(HttpRouteRules.dropUnreachable(rules, new Diagnostics())));
+    }
+
+    @Test
+    void keepsAndReportsShadowedRulesThatHttpRouteWouldPrefer() {
+        Diagnostics diagnostics = new Diagnostics();
+        List<HttpRoute.Rule> rules = List.of(
+                rule("/api", "svc-a", null),
+                exact(rule("/api/login", "svc-b", null)),
+                rule("/api/v1", "svc-a", null),
+                rule("/api/v1/admin", "svc-c", null),
+                rule("/api/v2", "svc-a", "/internal"));
+
+        assertEquals(rules, HttpRouteRules.dropUnreachable(rules, diagnostics));
+        assertEquals(List.of("/api/login", "/api/v1", "/api/v1/admin", "/api/v2"),
+                diagnostics.drain().warnings().stream().map(Diagnostics.WarningCount::subject).toList());
+    }
+
+    @Test
+    void keepsRulesInOneShardWithinLimits() {
+        List<HttpRoute.Rule> rules = List.of(rule("/a", "svc-a", null), rule("/b", "svc-b", null));
+
+        assertEquals(List.of(rules), HttpRouteRules.shard(rules, HttpRouteRules::jsonSize, HttpRouteRules.MAX_ROUTE_BYTES, new Diagnostics()));
+    }
+
+    @Test
+    void balancesShardsOverRuleLimit() {
+        List<HttpRoute.Rule> rules = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            rules.add(rule("/r" + i, "svc-a", "/internal"));
+        }
+
+        List<List<HttpRoute.Rule>> shards = HttpRouteRules.shard(rules, HttpRouteRules::jsonSize, HttpRouteRules.MAX_ROUTE_BYTES, new Diagnostics());
+
+        assertEquals(List.of(14, 13, 13), shards.stream().map(List::size).toList());
+        assertEquals(rules, shards.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    void splitsShardsOverByteBudget() {
+        List<HttpRoute.Rule> rules = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            rules.add(rule("/r" + i, "svc-a", null));
+        }
+
+        List<List<HttpRoute.Rule>> shards = HttpRouteRules.shard(rules, rule -> 100, 250, new Diagnostics());
+
+        assertEquals(List.of(2, 2, 2), shards.stream().map(List::size).toList());
+        assertEquals(rules, shards.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    void splitsCompactedRulesOverRouteMatchLimit() {
+        List<HttpRoute.Rule> rules = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            rules.add(rule("/r" + i, "svc-a", null));
+        }
+        List<HttpRoute.Rule> compacted = HttpRouteRules.compact(rules);
+
+        List<List<HttpRoute.Rule>> shards = HttpRouteRules.shard(compacted, HttpRouteRules::jsonSize, HttpRouteRules.MAX_ROUTE_BYTES, new Diagnostics());
+
+        assertEquals(List.of(64, 64, 64, 64, 44), compacted.stream().map(rule -> rule.getMatches().size()).toList());
+        assertEquals(List.of(128, 128, 44), shards.stream()
+                .map(shard -> shard.stream().mapToInt(rule -> rule.getMatches().size()).sum()).toList());
+        assertEquals(compacted, shards.stream().flatMap(List::stream).toList());
+    }
+
+    private static HttpRoute.Rule rule(String prefix, String backend, String prefixRewrite) {
+        HttpRoute.PathMatch path = new HttpRoute.PathMatch();
+        path.setType(HttpRoute.PathMatchType.PathPrefix);
+        path.setValue(prefix);
+        HttpRoute.Match match = new HttpRoute.Match();
+        match.setPath(path);
+
+        List<HttpRoute.Filter> filters = new ArrayList<>();
+        if (prefixRewrite != null) {
+            HttpRoute.PathRewrite rewrite = new HttpRoute.PathRewrite();
+            rewrite.setType(HttpRoute.PathRewriteType.ReplacePrefixMatch);
+            rewrite.setReplacePrefixMatch(prefixRewrite);
+            HttpRoute.URLRewrite urlRewrite = new HttpRoute.URLRewrite();
+            urlRewrite.setPath(rewrite);
+            HttpRoute.Filter filter = new HttpRoute.Filter();
+            filter.setType(HttpRoute.FilterType.URLRewrite);
+            filter.setUrlRewrite(urlRewrite);
+            filters.add(filter);
+        }
+
+        HttpRoute.BackendRef backendRef = new HttpRoute.BackendRef();
+        backendRef.setName(backend);
+        backendRef.setPort("8080");
+
+        HttpRoute.Rule rule = new HttpRoute.Rule();
+        rule.setMatches(new ArrayList<>(List.of(match)));
+        rule.setFilters(filters);
+        rule.setBackendRefs(List.of(backendRef));
+        return rule;
+    }
+
+    private static HttpRoute.Rule exact(HttpRoute.Rule rule) {
+        rule.getMatches().getFirst().getPath().setType(HttpRoute.PathMatchType.Exact);
+        return rule;
+    }
+
+    private static List<List<String>> paths(List<HttpRoute.Rule> rules) {
+        return rules.stream()
+                .map(rule -> rule.getMatches().stream().map(match -> match.getPath().getValue()).toList())
+                .toList();
+    }
+}
@@ -1,13 +1,18 @@
 package org.qubership.remesh.handler;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.jupiter.api.Test;
+import org.qubership.remesh.serialization.HelmTemplateTokenizer;
 import org.qubership.remesh.util.ObjectMapperProvider;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MeshResourceRouterTest {
@@ -55,6 +60,60 @@ class MeshResourceRouterTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void routesTemplatedDocumentFromTokenStream() {
+        List<String> subKinds = new ArrayList<>();
+        MeshResourceRouter router = new MeshResourceRouter(kind -> new CrHandler() {
+            @Override
+            public String getKind() {
+                return kind;
+            }
+
+            @Override
+            public List<Resource> handle(JsonNode node) {
+                throw new AssertionError("tree conversion is not expected");
+            }
+
+            @Override
+            public List<Resource> handle(JsonParser parser) throws IOException {
+                subKinds.add(kind);
+                subKinds.add(parser.readValueAsTree().toString());
+                return List.of(new TestResource());
+            }
+        });
+
+        List<Resource> result = router.route(HelmTemplateTokenizer.tokenize("""
+                spec:
+                  name: {{ .Values.NAME }}
+                apiVersion: core.netcracker.com/v1
+                kind: Mesh
+                subKind: {{ .Values.SUB_KIND }}
+                """));
+
+        assertEquals(1, result.size());
+        assertEquals("{{ .Values.SUB_KIND }}", subKinds.getFirst());
+        assertTrue(subKinds.get(1).contains("{{ .Values.NAME }}"));
+    }
+
+    @Test
+    void skipsNonMeshDocumentWithoutCallingHandler() {
+        AtomicBoolean handled = new AtomicBoolean(false);
+        MeshResourceRouter router = new MeshResourceRouter(kind -> {
+            handled.set(true);
+            return null;
+        });
+
+        List<Resource> result = router.route(HelmTemplateTokenizer.tokenize("""
+                apiVersion: v1
+                kind: Service
+                metadata:
+                  name: {{ .Values.NAME }}
+                """));
+
+        assertTrue(result.isEmpty());
+        assertFalse(handled.get());
+    }
+
     private static class TestResource implements Resource {
         @Override
         public String getApiVersion() {
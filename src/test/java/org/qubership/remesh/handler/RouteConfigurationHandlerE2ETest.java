@@ -3,13 +3,18 @@ package org.qubership.remesh.handler;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.jupiter.api.Test;
 import org.qubership.remesh.dto.gatewayapi.HttpRoute;
+import org.qubership.remesh.serialization.TemplatedYaml;
 import org.qubership.remesh.serialization.YamlPreprocessor;
 import org.qubership.remesh.util.ObjectMapperProvider;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class RouteConfigurationHandlerE2ETest {
 
@@ -108,4 +113,138 @@ class RouteConfigurationHandlerE2ETest {
         assertEquals("{{ .Values.DEPLOYMENT_RESOURCE_NAME }}", backendRef.getName());
         assertEquals("8080", backendRef.getPort());
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamingRouteBindsSameResourcesAsTreeConversion() throws Exception {
+        YamlPreprocessor preprocessor = new YamlPreprocessor(ObjectMapperProvider.getMapper());
+        List<Resource> fromTree = new RouteConfigurationHandler().handle(preprocessor.readAsJsonNode(YAML));
+
+        TemplatedYaml document = preprocessor.preprocessYaml(YAML);
+        List<Resource> fromStream = new MeshResourceRouter().route(document);
+
+        assertEquals(1, fromStream.size());
+        assertEquals(ObjectMapperProvider.getMapper().writeValueAsString(fromTree.getFirst()),
+                ObjectMapperProvider.getMapper().writeValueAsString(fromStream.getFirst()));
+        HttpRoute httpRoute = (HttpRoute) fromStream.getFirst();
+        assertEquals("{{ .Values.SERVICE_NAME }}-mesh-routes-http-route", httpRoute.getMetadata().getName());
+        assertEquals("{{ .Values.NAMESPACE }}", httpRoute.getMetadata().getNamespace());
+    }
+
+    @Test
+    void shardsRoutesOverRuleLimitWithOrderedNames() {
+        List<Resource> resources = new RouteConfigurationHandler().handle(shardedYaml(Map.of("big", 20)));
+
+        assertEquals(2, resources.size());
+        HttpRoute first = (HttpRoute) resources.get(0);
+        HttpRoute second = (HttpRoute) resources.get(1);
+        assertEquals("big-big-http-route-01", first.getMetadata().getName());
+        assertEquals("big-big-http-route-02", second.getMetadata().getName());
+        assertEquals("ns", second.getMetadata().getNamespace());
+        assertEquals(List.of(10, 10), List.of(first.getSpec().getRules().size(), second.getSpec().getRules().size()));
+        assertEquals(first.getSpec().getParentRefs(), second.getSpec().getParentRefs());
+        assertEquals(List.of("big"), second.getSpec().getHostnames());
+        assertEquals("/r10", second.getSpec().getRules().getFirst().getMatches().getFirst().getPath().getValue());
+    }
+
+    @Test
+    void keepsShardNameWidthWhenShardCountReachesTen() {
+        List<String> nine = routeNames(new RouteConfigurationHandler().handle(shardedYaml(Map.of("big", 9 * 16))));
+        List<String> ten = routeNames(new RouteConfigurationHandler().handle(shardedYaml(Map.of("big", 9 * 16 + 1))));
+
+        assertEquals(9, nine.size());
+        assertEquals(10, ten.size());
+        assertEquals(nine, ten.subList(0, 9));
+        assertEquals("big-big-http-route-09", nine.getLast());
+        assertEquals("big-big-http-route-10", ten.getLast());
+        assertEquals(ten.stream().sorted().toList(), ten);
+    }
+
+    @Test
+    void shardsOfDifferentVirtualServicesDoNotCollide() {
+        Map<String, Integer> virtualServices = new LinkedHashMap<>();
+        virtualServices.put("Public_API", 20);
+        virtualServices.put("internal", 20);
+
+        List<String> names = routeNames(new RouteConfigurationHandler().handle(shardedYaml(virtualServices)));
+
+        assertEquals(List.of("big-public-api-http-route-01", "big-public-api-http-route-02",
+                "big-internal-http-route-01", "big-internal-http-route-02"), names);
+    }
+
+    @Test
+    void keepsCompactedRoutesWithinRouteMatchLimit() {
+        StringBuilder yaml = new StringBuilder("""
+                apiVersion: core.netcracker.com/v1
+                kind: Mesh
+                subKind: RouteConfiguration
+                metadata:
+                  name: big
+                  namespace: ns
+                spec:
+                  virtualServices:
+                    - name: big
+                      hosts: ["big"]
+                      routeConfiguration:
+                        routes:
+                          - destination:
+                              cluster: big
+                              endpoint: http://big:8080
+                            rules:
+                """);
+        for (int i = 0; i < 300; i++) {
+            yaml.append("                  - match: {prefix: /r").append(i).append("}\n");
+        }
+
+        List<Resource> resources = new RouteConfigurationHandler()
+                .handle(new YamlPreprocessor(ObjectMapperProvider.getMapper()).readAsJsonNode(yaml.toString()));
+
+        List<Integer> matchesPerRoute = resources.stream()
+                .map(r -> ((HttpRoute) r).getSpec().getRules().stream().mapToInt(rule -> rule.getMatches().size()).sum())
+                .toList();
+        assertEquals(List.of(128, 128, 44), matchesPerRoute);
+        assertEquals("/r299", ((HttpRoute) resources.getLast()).getSpec().getRules().getLast().getMatches().getLast().getPath().getValue());
+    }
+
+    // A RouteConfiguration "big" with one virtual service per entry, each with the given number of prefix rules
+    private static JsonNode shardedYaml(Map<String, Integer> virtualServices) {
+        StringBuilder yaml = new StringBuilder("""
+                apiVersion: core.netcracker.com/v1
+                kind: Mesh
+                subKind: RouteConfiguration
+                metadata:
+                  name: big
+                  namespace: ns
+                spec:
+                  virtualServices:
+                """);
+        virtualServices.forEach((name, rules) -> {
+            yaml.append("    - name: ").append(name).append('\n')
+                    .append("      hosts: [\"big\"]\n")
+                    .append("      routeConfiguration:\n")
+                    .append("        routes:\n")
+                    .append("          - destination:\n")
+                    .append("              cluster: big\n")
+                    .append("              endpoint: http://big:8080\n")
+                    .append("            rules:\n");
+            for (int i = 0; i < rules; i++) {
+                yaml.append("              - match: {prefix: /r").append(i).append("}\n")
+                        .append("                prefixRewrite: /internal/r").append(i).append('\n');
+            }
+        });
+        return new YamlPreprocessor(ObjectMapperProvider.getMapper()).readAsJsonNode(yaml.toString());
+    }
+
+    private static List<String> routeNames(List<Resource> resources) {
+        return resources.stream().map(r -> ((HttpRoute) r).getMetadata().getName()).toList();
+    }
+
+    @Test
+    void rejectsHeaderRegexRe2CannotCompileInsteadOfDroppingIt() {
+        YamlPreprocessor preprocessor = new YamlPreprocessor(ObjectMapperProvider.getMapper());
+        JsonNode node = preprocessor.readAsJsonNode(YAML.replace("presentMatch: true", "safeRegexMatch: \"Bearer (?=admin).*\""));
+
+        ConversionException e = assertThrows(ConversionException.class, () -> new RouteConfigurationHandler().handle(node));
+
+        assertTrue(e.getMessage().contains("Authorization"), e.getMessage());
+    }
+}
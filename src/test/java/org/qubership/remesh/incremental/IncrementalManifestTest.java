@@ -0,0 +1,69 @@
+package org.qubership.remesh.incremental;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalManifestTest {
+
+    @Test
+    void recordedFileIsUpToDateAfterReload() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-manifest");
+        Path file = Files.writeString(Files.createDirectories(dir.resolve("chart")).resolve("values.yaml"), "kind: Demo");
+
+        IncrementalManifest manifest = IncrementalManifest.load(dir, "1");
+        assertFalse(manifest.isUpToDate(file));
+        manifest.record(file);
+        manifest.save();
+
+        IncrementalManifest reloaded = IncrementalManifest.load(dir, "1");
+        assertTrue(reloaded.isUpToDate(file));
+        assertTrue(Files.readString(dir.resolve(IncrementalManifest.FILE_NAME)).contains("chart/values.yaml"));
+    }
+
+    @Test
+    void changedContentOrVersionIsNotUpToDate() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-manifest");
+        Path file = Files.writeString(dir.resolve("values.yaml"), "kind: Demo");
+
+        IncrementalManifest manifest = IncrementalManifest.load(dir, "1");
+        manifest.record(file);
+        manifest.save();
+
+        assertFalse(IncrementalManifest.load(dir, "2").isUpToDate(file));
+
+        Files.writeString(file, "kind: Changed");
+        assertFalse(IncrementalManifest.load(dir, "1").isUpToDate(file));
+    }
+
+    @Test
+    void dropsEntriesForRemovedFiles() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-manifest");
+        Path kept = Files.writeString(dir.resolve("kept.yaml"), "a");
+        Path removed = Files.writeString(dir.resolve("removed.yaml"), "b");
+
+        IncrementalManifest manifest = IncrementalManifest.load(dir, "1");
+        manifest.record(kept);
+        manifest.record(removed);
+        manifest.retainOnly(List.of(kept));
+
+        assertEquals(1, manifest.size());
+    }
+
+    @Test
+    void ignoresUnreadableManifest() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-manifest");
+        Files.writeString(dir.resolve(IncrementalManifest.FILE_NAME), "not json");
+
+        IncrementalManifest manifest = IncrementalManifest.load(dir, "1");
+
+        assertEquals(0, manifest.size());
+    }
+}
@@ -0,0 +1,100 @@
+package org.qubership.remesh.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.qubership.remesh.TransformOptions;
+import org.qubership.remesh.TransformerService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunRecordingTest {
+    private static final String YAML = """
+            apiVersion: core.netcracker.com/v1
+            kind: Mesh
+            subKind: RouteConfiguration
+            metadata:
+              name: demo-mesh-routes
+              namespace: demo
+            spec:
+              gateways: ["public-gateway-service"]
+              virtualServices:
+                - name: demo
+                  hosts: ["demo"]
+                  routeConfiguration:
+                    routes:
+                      - destination:
+                          cluster: demo
+                          endpoint: http://demo:8080
+                        rules:
+                          - match:
+                              prefix: /v1/test
+            ---
+            apiVersion: v1
+            kind: ConfigMap
+            metadata:
+              name: untouched
+            """;
+
+    @Test
+    void recordsFileFragmentHandlerAndValidationEvents() throws IOException {
+        Path dir = Files.createTempDirectory("remesh-test");
+        Path input = dir.resolve("routes.yaml");
+        Files.writeString(input, YAML);
+        Path jfr = Files.createTempDirectory("remesh-jfr").resolve("run.jfr");
+
+        TransformOptions options = new TransformOptions();
+        options.setOutDir(Files.createTempDirectory("remesh-out"));
+        options.setValidate(true);
+        try (RunRecording ignored = RunRecording.start(jfr)) {
+            new TransformerService().transform(dir, options);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(jfr).stream()
+                .filter(event -> event.getEventType().getName().startsWith("org.qubership.remesh."))
+                .toList();
+
+        RecordedEvent file = single(events, "FileConversion");
+        assertEquals(input.toString(), file.getString("path"));
+        assertEquals(Files.size(input), file.getLong("bytes"));
+        assertEquals(2, file.getInt("fragments"));
+        assertFalse(file.getBoolean("failed"));
+        assertTrue(file.getInt("resources") > 0);
+
+        List<RecordedEvent> fragments = named(events, "FragmentConversion");
+        assertEquals(2, fragments.size());
+        fragments.forEach(fragment -> assertEquals(input.toString(), fragment.getString("path")));
+        RecordedEvent fragment = fragments.stream().filter(event -> event.getInt("resources") > 0).findFirst().orElseThrow();
+        assertEquals(file.getInt("resources"), fragment.getInt("resources"));
+
+        RecordedEvent handler = single(events, "HandlerInvocation");
+        assertEquals("RouteConfiguration", handler.getString("subKind"));
+        assertEquals(input.toString(), handler.getString("path"));
+        assertEquals(fragment.getInt("fragment"), handler.getInt("fragment"));
+        assertEquals(fragment.getInt("resources"), handler.getInt("resources"));
+        assertEquals(fragment.getThread().getJavaThreadId(), handler.getThread().getJavaThreadId());
+
+        List<RecordedEvent> validations = named(events, "Validation");
+        assertEquals(file.getInt("resources"), validations.size());
+        validations.forEach(validation -> assertEquals(input.toString(), validation.getString("path")));
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = named(events, name);
+        assertEquals(1, matching.size(), name);
+        return matching.getFirst();
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals("org.qubership.remesh." + name))
+                .toList();
+    }
+}
@@ -0,0 +1,115 @@
+package org.qubership.remesh.output;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class MirrorOutputTest {
+
+    @Test
+    void writesCommittedOutputIntoMirroredTree() throws IOException {
+        Path input = Files.createTempDirectory("remesh-in");
+        Path out = Files.createTempDirectory("remesh-out");
+        Path file = Files.writeString(Files.createDirectories(input.resolve("chart/templates")).resolve("mesh.yaml"), "original");
+
+        MirrorOutput output = new MirrorOutput(input, out);
+        try (OutputFile outputFile = output.open(file)) {
+            outputFile.writer().write("converted");
+            outputFile.commit();
+        }
+        output.finish();
+
+        Path expected = out.resolve("chart/templates/mesh.yaml");
+        assertEquals(expected, output.outputPath(file));
+        assertEquals("converted", Files.readString(expected));
+        assertEquals("original", Files.readString(file));
+        assertEquals(0, countTempFiles(expected.getParent()));
+    }
+
+    @Test
+    void discardsUncommittedOutput() throws IOException {
+        Path input = Files.createTempDirectory("remesh-in");
+        Path out = Files.createTempDirectory("remesh-out");
+        Path file = Files.writeString(input.resolve("mesh.yaml"), "original");
+
+        MirrorOutput output = new MirrorOutput(input, out);
+        try (OutputFile outputFile = output.open(file)) {
+            outputFile.writer().write("partial");
+        }
+
+        assertFalse(Files.exists(out.resolve("mesh.yaml")));
+        assertEquals(0, countTempFiles(out));
+    }
+
+    @Test
+    void replacesPreviousOutputAtomically() throws IOException {
+        Path input = Files.createTempDirectory("remesh-in");
+        Path out = Files.createTempDirectory("remesh-out");
+        Path file = Files.writeString(input.resolve("mesh.yaml"), "original");
+        Files.writeString(out.resolve("mesh.yaml"), "previous");
+
+        MirrorOutput output = new MirrorOutput(input, out);
+        try (OutputFile outputFile = output.open(file)) {
+            outputFile.writer().write("converted");
+            outputFile.commit();
+        }
+
+        assertEquals("converted", Files.readString(out.resolve("mesh.yaml")));
+    }
+
+    @Test
+    void keepsPermissionsOfReplacedOutput() throws IOException {
+        Path input = Files.createTempDirectory("remesh-in");
+        Path out = Files.createTempDirectory("remesh-out");
+        Path file = Files.writeString(input.resolve("mesh.yaml"), "original");
+        Path previous = Files.writeString(out.resolve("mesh.yaml"), "previous");
+        Assumptions.assumeTrue(Files.getFileAttributeView(previous, PosixFileAttributeView.class) != null);
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r--r--");
+        Files.setPosixFilePermissions(previous, permissions);
+
+        MirrorOutput output = new MirrorOutput(input, out, true);
+        try (OutputFile outputFile = output.open(file)) {
+            outputFile.writer().write("converted");
+            outputFile.commit();
+        }
+        output.finish();
+
+        assertEquals(permissions, Files.getPosixFilePermissions(out.resolve("mesh.yaml")));
+        assertEquals("converted", Files.readString(out.resolve("mesh.yaml")));
+    }
+
+    @Test
+    void createsNewOutputReadableBeyondOwner() throws IOException {
+        Path input = Files.createTempDirectory("remesh-in");
+        Path out = Files.createTempDirectory("remesh-out");
+        Path file = Files.writeString(input.resolve("mesh.yaml"), "original");
+        Path reference = Files.writeString(out.resolve("reference.yaml"), "");
+        Assumptions.assumeTrue(Files.getFileAttributeView(reference, PosixFileAttributeView.class) != null);
+
+        MirrorOutput output = new MirrorOutput(input, out);
+        try (OutputFile outputFile = output.open(file)) {
+            outputFile.writer().write("converted");
+            outputFile.commit();
+        }
+
+        // same umask defaults as any other newly created file, not the 0600 of a temp file
+        assertEquals(Files.getPosixFilePermissions(reference), Files.getPosixFilePermissions(out.resolve("mesh.yaml")));
+    }
+
+    private static long countTempFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".remesh-tmp")).count();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.qubership.remesh.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StagedPipelineTest {
+
+    @Test
+    void passesEveryItemThroughAllStages() throws Exception {
+        Set<Integer> results = ConcurrentHashMap.newKeySet();
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>(4, (item, e) -> {})
+                .addStage("double", 3, i -> i * 2)
+                .addStage("increment", 2, i -> i + 1)
+                .addStage("collect", 1, i -> {
+                    results.add(i);
+                    return null;
+                });
+        pipeline.start();
+        for (int i = 0; i < 100; i++) {
+            pipeline.submit(i);
+        }
+        pipeline.finish();
+
+        assertEquals(100, results.size());
+        assertTrue(results.contains(199));
+        List<StagedPipeline.StageStats> stats = pipeline.stats();
+        assertEquals(3, stats.size());
+        for (StagedPipeline.StageStats stage : stats) {
+            assertEquals(100, stage.processed());
+            assertEquals(0, stage.queueDepth());
+            assertTrue(stage.maxQueueDepth() <= 4);
+        }
+    }
+
+    @Test
+    void slowStageAppliesBackpressure() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        AtomicInteger collected = new AtomicInteger();
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>(1, (item, e) -> {})
+                .addStage("gated", 1, i -> {
+                    try {
+                        gate.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    collected.incrementAndGet();
+                    return i;
+                });
+        pipeline.start();
+
+        // one item held by the gated worker and one in the queue; the third submit has nowhere to go
+        AtomicInteger submitted = new AtomicInteger();
+        Thread submitter = new Thread(() -> {
+            try {
+                for (int i = 0; i < 3; i++) {
+                    pipeline.submit(i);
+                    submitted.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        submitter.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (submitter.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+
+        assertEquals(Thread.State.WAITING, submitter.getState());
+        assertTrue(submitted.get() < 3, "submitted " + submitted.get());
+        assertEquals(0, collected.get());
+
+        gate.countDown();
+        submitter.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(submitter.isAlive());
+        assertEquals(3, submitted.get());
+        pipeline.finish();
+        assertEquals(3, collected.get());
+    }
+
+    @Test
+    void forwardsItemsAfterStepFailure() throws Exception {
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger reachedEnd = new AtomicInteger();
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>(4, (item, e) -> failures.incrementAndGet())
+                .addStage("fail-odd", 2, i -> {
+                    if (i % 2 == 1) {
+                        throw new IllegalStateException("odd");
+                    }
+                    return i;
+                })
+                .addStage("end", 1, i -> {
+                    reachedEnd.incrementAndGet();
+                    return null;
+                });
+        pipeline.start();
+        for (int i = 0; i < 10; i++) {
+            pipeline.submit(i);
+        }
+        pipeline.finish();
+
+        assertEquals(5, failures.get());
+        assertEquals(10, reachedEnd.get());
+    }
+
+    @Test
+    void rejectsNonPositiveQueueCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new StagedPipeline<Integer>(0, (item, e) -> {}));
+    }
+}
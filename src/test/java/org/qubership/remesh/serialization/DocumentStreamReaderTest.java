@@ -0,0 +1,62 @@
+package org.qubership.remesh.serialization;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentStreamReaderTest {
+
+    @Test
+    void splitsOnDelimiterLinesAndSkipsBlankDocuments() throws IOException {
+        String yaml = "---\n# Source: chart/templates/svc.yaml\nkind: Service\n---  \n\n---\nkind: 'Mesh'\nsubKind: Demo\n--- \nkind: ConfigMap";
+        DocumentStreamReader reader = new DocumentStreamReader(stream(yaml));
+
+        DocumentStreamReader.Document service = reader.next();
+        assertEquals("# Source: chart/templates/svc.yaml\nkind: Service\n", text(service));
+        assertFalse(service.meshCandidate());
+
+        DocumentStreamReader.Document mesh = reader.next();
+        assertEquals("kind: 'Mesh'\nsubKind: Demo\n", text(mesh));
+        assertTrue(mesh.meshCandidate());
+
+        assertEquals("kind: ConfigMap", text(reader.next()));
+        assertNull(reader.next());
+    }
+
+    @Test
+    void readsDocumentsLargerThanTheBufferFromSmallReads() throws IOException {
+        String large = "kind: Mesh\ndata: " + "x".repeat(200_000) + "\n";
+        InputStream trickle = new ByteArrayInputStream(("---\n" + large + "---\nkind: Other\n").getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+        DocumentStreamReader reader = new DocumentStreamReader(trickle);
+
+        List<String> documents = new ArrayList<>();
+        DocumentStreamReader.Document document;
+        while ((document = reader.next()) != null) {
+            documents.add(text(document));
+        }
+        assertEquals(List.of(large, "kind: Other\n"), documents);
+    }
+
+    private static InputStream stream(String yaml) {
+        return new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(DocumentStreamReader.Document document) {
+        return StandardCharsets.UTF_8.decode(document.content()).toString();
+    }
+}
@@ -56,4 +56,21 @@ class ExtendedIntegerSerializerTest {
 
         assertEquals("\"abc\"", writer.toString());
     }
+
+    @Test
+    void classifiesIntegersLikeParseInt() {
+        for (String value : new String[]{"0", "8080", "-1", "+42", "2147483647", "-2147483648", "2147483648",
+                "-2147483649", "99999999999", "", "-", "+", "1.0", " 80", "80 ", "http-web", "\u0661\u0662"}) {
+            assertEquals(parses(value), serializer.isInteger(value), value);
+        }
+    }
+
+    private static boolean parses(String value) {
+        try {
+            Integer.parseInt(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,56 @@
+package org.qubership.remesh.serialization;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FragmentIndexTest {
+
+    @Test
+    void indexesDocumentsBetweenDelimiterLines() {
+        String yaml = """
+                apiVersion: v1
+                kind: Service
+                ---
+                apiVersion: core.netcracker.com/v1
+                kind: "Mesh"
+                subKind: RouteConfiguration
+                ---  \r
+                
+                --- # not a delimiter
+                kind: Meshes
+                """;
+
+        List<FragmentIndex.Fragment> fragments = FragmentIndex.build(ByteBuffer.wrap(yaml.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, fragments.size());
+        assertEquals("apiVersion: v1\nkind: Service\n", text(yaml, fragments.get(0)));
+        assertFalse(fragments.get(0).meshCandidate());
+        assertTrue(fragments.get(1).meshCandidate());
+        assertTrue(text(yaml, fragments.get(1)).startsWith("apiVersion: core.netcracker.com/v1"));
+        assertFalse(fragments.get(2).meshCandidate());
+    }
+
+    @Test
+    void ignoresNestedKindAndLastDocumentWithoutNewline() {
+        String yaml = "spec:\n  kind: Mesh\n---\nkind: Mesh";
+
+        List<FragmentIndex.Fragment> fragments = FragmentIndex.build(ByteBuffer.wrap(yaml.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, fragments.size());
+        assertFalse(fragments.get(0).meshCandidate());
+        assertTrue(fragments.get(1).meshCandidate());
+        assertEquals("kind: Mesh", text(yaml, fragments.get(1)));
+    }
+
+    private static String text(String yaml, FragmentIndex.Fragment fragment) {
+        byte[] bytes = yaml.getBytes(StandardCharsets.UTF_8);
+        return new String(bytes, fragment.offset(), fragment.length(), StandardCharsets.UTF_8);
+    }
+}
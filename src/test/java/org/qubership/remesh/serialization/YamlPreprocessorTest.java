@@ -4,31 +4,106 @@ import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.jupiter.api.Test;
 import org.qubership.remesh.util.ObjectMapperProvider;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class YamlPreprocessorTest {
 
     @Test
-    void quotesInlineTemplateValues() {
+    void keepsInlineTemplateValues() {
+        YamlPreprocessor preprocessor = new YamlPreprocessor(ObjectMapperProvider.getMapper());
+
+        JsonNode node = preprocessor.readAsJsonNode("key: {{ value }}");
+
+        assertNotNull(node);
+        assertEquals("{{ value }}", node.get("key").asText());
+    }
+
+    @Test
+    void dropsStandaloneTemplates() {
         YamlPreprocessor preprocessor = new YamlPreprocessor(ObjectMapperProvider.getMapper());
 
-        String yaml = "key: {{ value }}";
+        TemplatedYaml processed = preprocessor.preprocessYaml("{{ something }}");
 
-        String processed = preprocessor.quoteInlineTemplates(yaml);
+        assertEquals("", processed.text().trim());
+    }
+
+    @Test
+    void skipsFragmentsWithoutTemplates() {
+        YamlPreprocessor preprocessor = new YamlPreprocessor(ObjectMapperProvider.getMapper());
+        String yaml = "apiVersion: core.netcracker.com/v1\nkind: Mesh\n";
 
-        assertEquals("key: '{{ value }}'", processed.trim());
+        TemplatedYaml processed = preprocessor.preprocessYaml(yaml);
+
+        assertSame(yaml, processed.text());
+        assertFalse(processed.hasTemplates());
     }
 
     @Test
-    void replacesStandaloneTemplates() {
+    void restoresTemplatesInKeysListsAndQuotedValues() {
         YamlPreprocessor preprocessor = new YamlPreprocessor(ObjectMapperProvider.getMapper());
 
-        String yaml = "{{ something }}";
+        JsonNode node = preprocessor.readAsJsonNode("""
+                labels:
+                  {{ include "labels.common" . | nindent 4 }}
+                  {{ .Values.LABEL }}: value
+                hosts: [{{ .Values.HOST }}]
+                items:
+                  - {{ .Values.ITEM }}
+                endpoint: http://{{ .Values.NAME }}:8080
+                single: 'it''s {{ include ''x'' . }}'
+                double: "{{ include \\"y\\" . }}"
+                """);
 
-        String processed = preprocessor.replaceStandaloneTemplates(yaml);
+        assertNotNull(node);
+        assertEquals("value", node.get("labels").get("{{ .Values.LABEL }}").asText());
+        assertEquals(1, node.get("labels").size());
+        assertEquals("{{ .Values.HOST }}", node.get("hosts").get(0).asText());
+        assertEquals("{{ .Values.ITEM }}", node.get("items").get(0).asText());
+        assertEquals("http://{{ .Values.NAME }}:8080", node.get("endpoint").asText());
+        assertEquals("it's {{ include 'x' . }}", node.get("single").asText());
+        assertEquals("{{ include \"y\" . }}", node.get("double").asText());
+    }
 
-        assertEquals("# {{ something }}", processed.trim());
+    @Test
+    void keepsPlaceholderLookalikesInInputLiteral() {
+        YamlPreprocessor preprocessor = new YamlPreprocessor(ObjectMapperProvider.getMapper());
+        String prefix = preprocessor.preprocessYaml("a: {{ .x }}").placeholderPrefix();
+
+        JsonNode node = preprocessor.readAsJsonNode("legacy: __remesh_tpl_7__\n"
+                + "current: " + prefix + "0__ " + prefix + "9__\n"
+                + "value: {{ .Values.X }}\n");
+
+        assertNotNull(node);
+        assertEquals("__remesh_tpl_7__", node.get("legacy").asText());
+        assertEquals(prefix + "0__ " + prefix + "9__", node.get("current").asText());
+        assertEquals("{{ .Values.X }}", node.get("value").asText());
+    }
+
+    @Test
+    void leavesOutOfRangePlaceholdersAlone() {
+        TemplatedYaml yaml = new TemplatedYaml("a: __p_0__", List.of("{{ a }}"), "__p_");
+
+        assertEquals("__p_3__ {{ a }} __p_99999999999__", yaml.restore("__p_3__ __p_0__ __p_99999999999__"));
+    }
+
+    @Test
+    void treatsApostrophesInPlainScalarsAsText() {
+        YamlPreprocessor preprocessor = new YamlPreprocessor(ObjectMapperProvider.getMapper());
+
+        JsonNode node = preprocessor.readAsJsonNode("""
+                plain: it's {{ printf "%s''" .x }}
+                flow: [it's, '{{ a ''b'' }}']
+                """);
+
+        assertNotNull(node);
+        assertEquals("it's {{ printf \"%s''\" .x }}", node.get("plain").asText());
+        assertEquals("it's", node.get("flow").get(0).asText());
+        assertEquals("{{ a 'b' }}", node.get("flow").get(1).asText());
     }
 
     @Test
@@ -0,0 +1,148 @@
+package org.qubership.remesh.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.remesh.TransformerService;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConversionServerTest {
+    private static final String YAML = """
+            apiVersion: core.netcracker.com/v1
+            kind: Mesh
+            subKind: RouteConfiguration
+            metadata:
+              name: {{ .Values.SERVICE_NAME }}-mesh-routes
+              namespace: "{{ .Values.NAMESPACE }}"
+            spec:
+              gateways: ["public-gateway-service"]
+              virtualServices:
+                - name: "{{ .Values.SERVICE_NAME }}"
+                  hosts: ["{{ .Values.SERVICE_NAME }}"]
+                  routeConfiguration:
+                    routes:
+                      - destination:
+                          cluster: "{{ .Values.SERVICE_NAME }}"
+                          endpoint: http://{{ .Values.DEPLOYMENT_RESOURCE_NAME }}:8080
+                        rules:
+                          - match:
+                              prefix: /v1/test
+            ---
+            apiVersion: v1
+            kind: ConfigMap
+            metadata:
+              name: untouched
+            """;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ConversionServer server;
+    private String base;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = new ConversionServer(new TransformerService(), new InetSocketAddress("127.0.0.1", 0), 2);
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+
+    @Test
+    void convertsPostedYamlAndCountsRequests() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/convert?validate=true"))
+                .POST(HttpRequest.BodyPublishers.ofString(YAML)).build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        JsonNode body = new ObjectMapper().readTree(response.body());
+        assertEquals(2, body.get("fragments").asInt());
+        assertEquals(1, body.get("resources").asInt());
+        assertTrue(body.get("output").asText().contains("kind: \"HTTPRoute\""));
+        assertTrue(body.get("issues").isArray());
+
+        HttpResponse<String> metrics = client.send(HttpRequest.newBuilder(URI.create(base + "/metrics")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, metrics.statusCode());
+        assertTrue(metrics.body().contains("remesh_request_duration_seconds_count{endpoint=\"/convert\"} 1"));
+        assertTrue(metrics.body().contains("remesh_request_errors_total{endpoint=\"/convert\"} 0"));
+    }
+
+    @Test
+    void returnsYamlWhenAskedFor() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/convert"))
+                .header("Accept", "application/yaml")
+                .POST(HttpRequest.BodyPublishers.ofString(YAML)).build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("---"));
+        assertTrue(response.body().contains("kind: \"HTTPRoute\""));
+    }
+
+    @Test
+    void rejectsWrongMethodAndMissingDir() throws Exception {
+        HttpResponse<String> get = client.send(HttpRequest.newBuilder(URI.create(base + "/convert")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, get.statusCode());
+
+        HttpResponse<String> transform = client.send(HttpRequest.newBuilder(URI.create(base + "/transform?dir=does-not-exist"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, transform.statusCode());
+
+        HttpResponse<String> metrics = client.send(HttpRequest.newBuilder(URI.create(base + "/metrics")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertTrue(metrics.body().contains("remesh_request_errors_total{endpoint=\"/transform\"} 1"));
+    }
+
+    @Test
+    void transformsIntoOutDirAndReturnsConvertedFiles() throws Exception {
+        Path dir = Files.createTempDirectory("remesh-serve");
+        Files.writeString(Files.createDirectories(dir.resolve("templates")).resolve("mesh.yaml"), YAML);
+        Path out = Files.createTempDirectory("remesh-serve-out");
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/transform?dir=" + encode(dir)
+                        + "&out=" + encode(out))).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        JsonNode body = new ObjectMapper().readTree(response.body());
+        assertEquals(1, body.get("files").asInt());
+        JsonNode output = body.get("outputs").get(0);
+        assertEquals(Path.of("templates", "mesh.yaml").toString(), output.get("file").asText());
+        assertTrue(output.get("output").asText().contains("kind: \"HTTPRoute\""));
+        assertEquals(YAML, Files.readString(dir.resolve("templates/mesh.yaml")));
+    }
+
+    @Test
+    void rejectsInPlaceTransform() throws Exception {
+        Path dir = Files.createTempDirectory("remesh-serve");
+        Files.writeString(dir.resolve("mesh.yaml"), YAML);
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/transform?dir=" + encode(dir)))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode());
+        assertEquals(YAML, Files.readString(dir.resolve("mesh.yaml")));
+        assertFalse(Files.exists(dir.resolve("mesh.yaml_old")));
+    }
+
+    private static String encode(Path path) {
+        return URLEncoder.encode(path.toString(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,64 @@
+package org.qubership.remesh.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunStatsTest {
+
+    @Test
+    void keepsSlowestFilesAndFragmentsInOrder() {
+        RunStats stats = new RunStats(2);
+        stats.recordFile(Path.of("fast.yaml"), 10, millis(1));
+        stats.recordFile(Path.of("slow.yaml"), 30, millis(30));
+        stats.recordFile(Path.of("medium.yaml"), 20, millis(5));
+        stats.recordFragment(Path.of("slow.yaml"), 2, 1, millis(20));
+        stats.recordFragment(Path.of("slow.yaml"), 1, 0, millis(3));
+
+        StatsReport report = stats.report();
+
+        assertEquals(3, report.files());
+        assertEquals(60, report.bytesRead());
+        assertEquals(2, report.fragments());
+        assertEquals(1, report.resources());
+        assertEquals(List.of("slow.yaml", "medium.yaml"), report.slowestFiles().stream().map(StatsReport.SlowFile::file).toList());
+        assertEquals(List.of(2, 1), report.slowestFragments().stream().map(StatsReport.SlowFragment::fragment).toList());
+    }
+
+    @Test
+    void rendersStageHistogramsAsOpenMetrics() {
+        RunStats stats = new RunStats(1);
+        stats.record(RunStats.READ, System.nanoTime() - millis(2));
+        stats.record(RunStats.READ, System.nanoTime() - millis(200));
+
+        StatsReport.Stage read = stats.report().stages().getFirst();
+        assertEquals(RunStats.READ, read.stage());
+        assertEquals(2, read.count());
+        assertEquals(new StatsReport.Bucket("+Inf", 2), read.buckets().getLast());
+
+        String text = stats.report().toOpenMetrics();
+        assertTrue(text.contains("remesh_stage_duration_seconds_bucket{stage=\"read\",le=\"0.005\"} 1\n"));
+        assertTrue(text.contains("remesh_stage_duration_seconds_count{stage=\"read\"} 2\n"));
+        assertTrue(text.contains("remesh_files_total 0\n"));
+        assertTrue(text.endsWith("# EOF\n"));
+    }
+
+    @Test
+    void disabledStatsRecordNothing() {
+        RunStats.DISABLED.record(RunStats.READ, RunStats.DISABLED.start());
+        RunStats.DISABLED.recordFile(Path.of("a.yaml"), 1, 1);
+
+        StatsReport report = RunStats.DISABLED.report();
+        assertTrue(report.stages().isEmpty());
+        assertEquals(0, report.files());
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
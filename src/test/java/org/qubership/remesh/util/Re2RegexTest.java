@@ -0,0 +1,54 @@
+package org.qubership.remesh.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Re2RegexTest {
+
+    @Test
+    void turnsLiteralRegexesIntoLiterals() {
+        assertEquals("v1.2", Re2Regex.analyze("^v1\\.2$").literal());
+        assertEquals("a+b", Re2Regex.analyze("\\Qa+b\\E").literal());
+        assertEquals("AB", Re2Regex.analyze("\\x41\\x{42}").literal());
+        assertNull(Re2Regex.analyze("v1.2").literal());
+        assertNull(Re2Regex.analyze("(?i)abc").literal());
+        assertNull(Re2Regex.analyze("^$").literal());
+    }
+
+    @Test
+    void dropsRedundantAnchorsAndQuoting() {
+        Re2Regex.Analysis analysis = Re2Regex.analyze("^\\Qtenant.\\E.*$");
+
+        assertEquals("tenant\\..*", analysis.regex());
+        assertNull(analysis.literal());
+        assertEquals("^a|b$", Re2Regex.analyze("^a|b$").regex());
+        assertEquals("\\Q{{ .Values.PREFIX }}\\E", Re2Regex.quote("{{ .Values.PREFIX }}"));
+        assertEquals(-1, Re2Regex.analyze("^{{ .Values.PREFIX }}.*$").programSize());
+    }
+
+    @Test
+    void reportsConstructsRe2DoesNotSupport() {
+        assertNotNull(Re2Regex.analyze("foo(?=bar)").unsupported());
+        assertNotNull(Re2Regex.analyze("(?<!x)y").unsupported());
+        assertNotNull(Re2Regex.analyze("(a)\\1").unsupported());
+        assertNotNull(Re2Regex.analyze("a++").unsupported());
+        assertNotNull(Re2Regex.analyze("(?>a)").unsupported());
+        assertNotNull(Re2Regex.analyze("a{1001}").unsupported());
+        assertNotNull(Re2Regex.analyze("(a").unsupported());
+        assertNull(Re2Regex.analyze("(?P<v>[a-z]+)-\\d{2,4}|x{").unsupported());
+    }
+
+    @Test
+    void estimatesProgramSizeWithExpandedRepeats() {
+        int small = Re2Regex.analyze("[a-z]{2}").programSize();
+        int large = Re2Regex.analyze("[a-z]{2,200}").programSize();
+
+        assertEquals(4, small);
+        assertTrue(large > Re2Regex.DEFAULT_PROGRAM_BUDGET, "size " + large);
+        assertEquals(Re2Regex.analyze(".*").programSize(), Re2Regex.analyze("^.*$").programSize());
+    }
+}
@@ -0,0 +1,91 @@
+package org.qubership.remesh.validation;
+
+import org.junit.jupiter.api.Test;
+import org.qubership.remesh.handler.Resource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class AsyncValidatorTest {
+
+    @Test
+    void collectsIssuesInFileAndFragmentOrder() {
+        ResourceValidator resourceValidator = new ResourceValidator() {
+            @Override
+            public List<String> errors(Resource resource) {
+                if ("Broken".equals(resource.getKind())) {
+                    throw new IllegalStateException("no schema");
+                }
+                return "Valid".equals(resource.getKind()) ? List.of() : List.of("$: invalid");
+            }
+        };
+        AsyncValidator validator = new AsyncValidator(resourceValidator, 3);
+
+        validator.submit(Path.of("b.yaml"), 1, 1, resource("Invalid"));
+        validator.submit(Path.of("a.yaml"), 2, 2, resource("Broken"));
+        validator.submit(Path.of("a.yaml"), 2, 1, resource("Invalid"));
+        validator.submit(Path.of("a.yaml"), 1, 1, resource("Valid"));
+
+        ValidationReport report = validator.finish();
+
+        assertEquals(4, report.getValidated());
+        assertFalse(report.isValid());
+        List<ValidationReport.Issue> issues = report.getIssues();
+        assertEquals(3, issues.size());
+        assertEquals(new ValidationReport.Issue(Path.of("a.yaml"), 2, 1, "Invalid", List.of("$: invalid")), issues.get(0));
+        assertEquals(new ValidationReport.Issue(Path.of("a.yaml"), 2, 2, "Broken", List.of("validation failed: no schema")), issues.get(1));
+        assertEquals(Path.of("b.yaml"), issues.get(2).file());
+    }
+
+    @Test
+    void validatesOnSubmittingThreadWhenQueueIsFull() {
+        Thread submitter = Thread.currentThread();
+        CountDownLatch gate = new CountDownLatch(1);
+        AtomicInteger onSubmitter = new AtomicInteger();
+        ResourceValidator resourceValidator = new ResourceValidator() {
+            @Override
+            public List<String> errors(Resource resource) {
+                if (Thread.currentThread() == submitter) {
+                    onSubmitter.incrementAndGet();
+                } else {
+                    try {
+                        gate.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return List.of();
+            }
+        };
+        AsyncValidator validator = new AsyncValidator(resourceValidator, 1);
+
+        // one resource held by the blocked worker, a full queue, then one more
+        int submitted = 1 + AsyncValidator.QUEUE_PER_THREAD + 1;
+        for (int i = 0; i < submitted; i++) {
+            validator.submit(Path.of("a.yaml"), 1, i + 1, resource("Valid"));
+        }
+        assertEquals(1, onSubmitter.get());
+
+        gate.countDown();
+        assertEquals(submitted, validator.finish().getValidated());
+    }
+
+    private static Resource resource(String kind) {
+        return new Resource() {
+            @Override
+            public String getApiVersion() {
+                return "demo/v1";
+            }
+
+            @Override
+            public String getKind() {
+                return kind;
+            }
+        };
+    }
+}
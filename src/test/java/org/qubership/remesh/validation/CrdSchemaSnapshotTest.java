@@ -0,0 +1,63 @@
+package org.qubership.remesh.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CrdSchemaSnapshotTest {
+
+    @Test
+    void writesMinifiedV1Schema() throws IOException {
+        Path crdDir = Files.createTempDirectory("remesh-crd");
+        Path outDir = crdDir.resolve("out");
+        Files.writeString(crdDir.resolve("example.com_demo.yaml"), """
+                spec:
+                  versions:
+                    - name: v1beta1
+                      schema:
+                        openAPIV3Schema:
+                          type: string
+                    - name: v1
+                      schema:
+                        openAPIV3Schema:
+                          type: object
+                          required: [spec]
+                """);
+
+        CrdSchemaSnapshot.write(crdDir, outDir);
+
+        String snapshot = Files.readString(outDir.resolve("example.com_demo.schema.json"));
+        assertEquals("{\"type\":\"object\",\"required\":[\"spec\"]}", snapshot);
+    }
+
+    @Test
+    void failsWithoutV1Version() {
+        JsonNode crd = new ObjectMapper().createObjectNode();
+        assertThrows(IllegalStateException.class, () -> CrdSchemaSnapshot.extractSchema(crd, "crd.yaml"));
+    }
+
+    @Test
+    void bundledCrdsArePrecompiled() throws IOException {
+        JsonNode snapshot = JsonSchemaValidator.readSnapshot("gateway.networking.k8s.io_httproute.yaml");
+
+        assertNotNull(snapshot);
+        assertEquals(JsonSchemaValidator.readCrd("gateway.networking.k8s.io_httproute.yaml"), snapshot);
+        assertFalse(snapshot.path("properties").path("spec").isMissingNode());
+    }
+
+    @Test
+    void userSchemasFallBackToCrd() throws IOException {
+        assertNull(JsonSchemaValidator.readSnapshot("valid-crd.yaml"));
+        assertNotNull(JsonSchemaValidator.loadSchema("valid-crd.yaml"));
+    }
+}
@@ -0,0 +1,151 @@
+package org.qubership.remesh.validation;
+
+import org.junit.jupiter.api.Test;
+import org.qubership.remesh.dto.gatewayapi.HttpRoute;
+import org.qubership.remesh.util.ObjectMapperProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypedSchemaValidatorTest {
+    private static final String SCHEMA = "gateway.networking.k8s.io_httproute.yaml";
+
+    @Test
+    void generatedValidatorIsRegisteredForHttpRoute() {
+        HttpRoute route = new HttpRoute();
+
+        assertNotNull(TypedSchemaValidatorRegistry.get(route, SCHEMA));
+        assertNull(TypedSchemaValidatorRegistry.get(route, "example.com_demo.yaml"));
+    }
+
+    @Test
+    void validRouteHasNoErrors() {
+        HttpRoute route = route();
+        route.getSpec().getRules().getFirst().getBackendRefs().getFirst().setPort("svc-port");
+
+        assertEquals(List.of(), typedErrors(route));
+        assertSameErrors(route);
+    }
+
+    @Test
+    void matchesSchemaInterpreterOnInvalidRoute() {
+        HttpRoute route = route();
+        HttpRoute.HttpRouteSpec spec = route.getSpec();
+        spec.setHostnames(Arrays.asList("", "x".repeat(300), null, "ok"));
+
+        HttpRoute.ParentReference placeholderPort = new HttpRoute.ParentReference();
+        placeholderPort.setNamespace("Bad_NS");
+        placeholderPort.setPort("{{ .Values.PORT }}");
+        placeholderPort.setKind("");
+        HttpRoute.ParentReference longSection = new HttpRoute.ParentReference();
+        longSection.setName("gateway");
+        longSection.setPort("abc");
+        longSection.setSectionName("é".repeat(254));
+        spec.setParentRefs(Arrays.asList(placeholderPort, longSection, null));
+
+        HttpRoute.Rule rule = spec.getRules().getFirst();
+        HttpRoute.BackendRef textWeight = backendRef("svc");
+        textWeight.setWeight("abc");
+        HttpRoute.BackendRef heavy = backendRef("svc");
+        heavy.setWeight("2000000");
+        heavy.setPort("8080");
+        HttpRoute.BackendRef templated = backendRef("");
+        templated.setWeight("{{ .Values.WEIGHT }}");
+        templated.setPort("9999999999");
+        rule.setBackendRefs(List.of(textWeight, heavy, templated));
+
+        HttpRoute.Filter redirect = new HttpRoute.Filter();
+        redirect.setType(HttpRoute.FilterType.RequestRedirect);
+        HttpRoute.RequestRedirect requestRedirect = new HttpRoute.RequestRedirect();
+        requestRedirect.setStatusCode("303");
+        requestRedirect.setScheme("ftp");
+        requestRedirect.setPath(new HttpRoute.PathRewrite());
+        redirect.setRequestRedirect(requestRedirect);
+        HttpRoute.Filter headers = new HttpRoute.Filter();
+        HttpRoute.RequestRedirect textStatus = new HttpRoute.RequestRedirect();
+        textStatus.setStatusCode("abc");
+        headers.setRequestRedirect(textStatus);
+        HttpRoute.RequestHeaderModifier modifier = new HttpRoute.RequestHeaderModifier();
+        HttpRoute.Header header = new HttpRoute.Header();
+        header.setName("bad header");
+        header.setValue("");
+        modifier.setAdd(Collections.nCopies(17, header));
+        modifier.setRemove(Arrays.asList("x-debug", null));
+        headers.setRequestHeaderModifier(modifier);
+        rule.setFilters(List.of(redirect, headers));
+
+        HttpRoute.Match match = new HttpRoute.Match();
+        match.setMethod("FETCH");
+        match.setPath(new HttpRoute.PathMatch());
+        List<HttpRoute.Match> matches = new ArrayList<>(Collections.nCopies(70, match));
+        matches.add(null);
+        rule.setMatches(matches);
+
+        HttpRoute.Status status = new HttpRoute.Status();
+        HttpRoute.ParentStatus parent = new HttpRoute.ParentStatus();
+        HttpRoute.RouteCondition condition = new HttpRoute.RouteCondition();
+        condition.setStatus("Maybe");
+        condition.setReason("bad reason");
+        parent.setConditions(List.of(condition));
+        status.setParents(List.of(parent));
+        route.setStatus(status);
+
+        assertTrue(typedErrors(route).size() > 100);
+        assertSameErrors(route);
+    }
+
+    @Test
+    void matchesSchemaInterpreterOnMissingSpec() {
+        HttpRoute route = new HttpRoute();
+        route.setStatus(new HttpRoute.Status());
+
+        assertSameErrors(route);
+    }
+
+    private static void assertSameErrors(HttpRoute route) {
+        List<String> expected = new ArrayList<>(JsonSchemaValidator.errors(ObjectMapperProvider.getMapper().valueToTree(route), SCHEMA));
+        List<String> actual = typedErrors(route);
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+    }
+
+    private static List<String> typedErrors(HttpRoute route) {
+        return new ArrayList<>(TypedSchemaValidatorRegistry.get(route, SCHEMA).validate(route));
+    }
+
+    private static HttpRoute route() {
+        HttpRoute route = new HttpRoute();
+        HttpRoute.Metadata metadata = new HttpRoute.Metadata();
+        metadata.setName("demo");
+        route.setMetadata(metadata);
+
+        HttpRoute.PathMatch path = new HttpRoute.PathMatch();
+        path.setType(HttpRoute.PathMatchType.PathPrefix);
+        path.setValue("/api");
+        HttpRoute.Match match = new HttpRoute.Match();
+        match.setPath(path);
+
+        HttpRoute.Rule rule = new HttpRoute.Rule();
+        rule.setMatches(List.of(match));
+        rule.setBackendRefs(List.of(backendRef("backend")));
+
+        HttpRoute.HttpRouteSpec spec = new HttpRoute.HttpRouteSpec();
+        spec.setRules(List.of(rule));
+        route.setSpec(spec);
+        return route;
+    }
+
+    private static HttpRoute.BackendRef backendRef(String name) {
+        HttpRoute.BackendRef backendRef = new HttpRoute.BackendRef();
+        backendRef.setName(name);
+        return backendRef;
+    }
+}
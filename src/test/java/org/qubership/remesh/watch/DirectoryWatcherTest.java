@@ -0,0 +1,43 @@
+package org.qubership.remesh.watch;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DirectoryWatcherTest {
+
+    @Test
+    void coalescesBurstIntoOneBatch() throws Exception {
+        Path dir = Files.createTempDirectory("remesh-watch");
+        try (DirectoryWatcher watcher = new DirectoryWatcher(dir, null, Duration.ofMillis(200), DirectoryWatcherTest::isYaml)) {
+            Path file = dir.resolve("mesh.yaml");
+            for (int i = 0; i < 5; i++) {
+                Files.writeString(file, "kind: Mesh # " + i);
+            }
+            Files.writeString(dir.resolve("notes.txt"), "ignored");
+
+            assertEquals(List.of(file), watcher.awaitChanges());
+        }
+    }
+
+    @Test
+    void picksUpFilesInNewDirectoriesAndSkipsExcludedTree() throws Exception {
+        Path dir = Files.createTempDirectory("remesh-watch");
+        Path out = Files.createDirectories(dir.resolve("out"));
+        try (DirectoryWatcher watcher = new DirectoryWatcher(dir, out, Duration.ofMillis(200), DirectoryWatcherTest::isYaml)) {
+            Files.writeString(out.resolve("converted.yaml"), "kind: HTTPRoute");
+            Path nested = Files.writeString(Files.createDirectories(dir.resolve("chart/templates")).resolve("mesh.yaml"), "kind: Mesh");
+
+            assertEquals(List.of(nested), watcher.awaitChanges());
+        }
+    }
+
+    private static boolean isYaml(Path path) {
+        return path.getFileName().toString().endsWith(".yaml");
+    }
+}